@@ -1,4 +1,5 @@
 import java.util.Random;
+import javax.swing.JOptionPane;
 /**
  * The robot agent has several search agent it can initiate depending on which one
  * the user selects in the search simulator GUI. It is here that these search algorithms are implemented!
@@ -8,6 +9,8 @@ public class Agent {
 
     //Environment is boad, which is a 2D array of Blocks that have state info
     Block[][] board;
+    //Headless model of the board, the Blocks are a view of it
+    Grid model;
     //properties of Environment
     int length;
     int width;
@@ -21,37 +24,33 @@ public class Agent {
     //Start and finish X and Y positions
     int startX;
     int startY;
-    //current X and Y positions
+    //X and Y positions the searches start from
     int posX;
     int posY;
-    //this is only for moving back from an obstacle
-    int previousState; 
     
     //Life time steps
     int lifetime = 0;
     
     //For starting position
     Random rand1;
-    Random rand2;
     
     /**
      * Creates a robot agent that takes in the Environment and it's parameters.
-     * @param grid a 2D Array Environment
-     * @param len length of 2D Array
-     * @param wid width of 2D Array
+     * @param model the headless grid model of the Environment
+     * @param grid a 2D Array Environment that is a view of the model
      */
-    public Agent(Block[][] grid, int len, int wid) {
+    public Agent(Grid model, Block[][] grid) {
         
+        this.model = model;
         board = grid;
-        length = len;
-        width = wid;
-        lifetime = len*wid*50;
+        length = model.length;
+        width = model.width;
+        lifetime = (int)Math.min(Integer.MAX_VALUE, (long)length*width*50);
         destroyed = 0;
         stepsToObject = 0;
         stepsHome = 0;
         hasObject = 0;
         totalSteps = 0;
-        previousState = 0;
         startX = 0;
         startY = 0;
         posX = 0;
@@ -62,35 +61,20 @@ public class Agent {
      * Starts the robot agent on a random boundary block of the grid.  
      */
     public void startPosition() {
-        boolean entryPointFound = false;
-        while(!entryPointFound) {
-            rand1 = new Random();
-            rand2 = new Random();
-            int random1 = rand1.nextInt(((length))+0); //random1 is associated with length
-            int random2 = rand2.nextInt(((width))+0);  //random2 is associated with width
-            if(random1 == 0 || random2 == 0){
-                //this one checks first row and first column
-                if(board[random1][random2].isBlockFree() == 1) {
-                    board[random1][random2].setTraversed();
-                    posX = random1;
-                    posY = random2;
-                    startX = random1;
-                    startY = random2;
-                    entryPointFound = true;
-                }
-            }
-            else if(random1 == (length-1) || random2 == (width-1)){
-                //this one checks last row and last column
-                if(board[random1][random2].isBlockFree() == 1) {
-                    board[random1][random2].setTraversed();
-                    posX = random1;
-                    posY = random2;
-                    startX = random1;
-                    startY = random2;
-                    entryPointFound = true;
-                }
-            }
-        }
+        CellSet entries = model.landmarks().entries;
+        if(entries.isEmpty())
+            return;
+        rand1 = new Random();
+        int entry;
+        //an entry can also be the old home block, which is not free
+        do {
+            entry = entries.get(rand1.nextInt(entries.size()));
+        } while(!model.isFree(entry / width, entry % width));
+        posX = entry / width;
+        posY = entry % width;
+        startX = posX;
+        startY = posY;
+        board[startX][startY].setTraversed();
         board[startX][startY].setHome();
     }
     
@@ -99,15 +83,12 @@ public class Agent {
     * so that it starts there when the grid is loaded up from file. 
     */
     public void setStartPosition() {
-        for(int i = 0; i < length; i++) {
-            for(int j = 0; j < width; j++) {
-                if(board[i][j].home == 1) {
-                    posX = i;
-                    posY = j;
-                    startX = i; 
-                    startY = j;
-                }
-            }
+        int home = model.find(Grid.HOME);
+        if(home >= 0) {
+            posX = home / width;
+            posY = home % width;
+            startX = posX;
+            startY = posY;
         }
     }
     
@@ -116,11 +97,10 @@ public class Agent {
      * for a random restart algorithm. 
      */
     public void clearHome() {
-        for(int i = 0; i < length; i++) {
-            for(int j = 0; j < width; j++) {
-                if(board[i][j].home == 1)
-                    board[i][j].home = 0;
-            }
+        CellSet homes = model.landmarks().homes;
+        while(!homes.isEmpty()) {
+            int home = homes.first();
+            model.clearHome(home / width, home % width);
         }
     }
     
@@ -130,6 +110,13 @@ public class Agent {
      * @param searchType is a state mechanism that controls which search algorithm to implement
      */
     public void startSearch(Object searchType) {
+        //do not run a search that can only fail
+        if(!goalReachable(searchType)) {
+            JOptionPane.showMessageDialog(null, "ROBOT is unable to find a path to the goal object or home.\n\n"
+                    + searchType + " Results: \nThe Agent failed.\n"
+                    + "Allowed Lifetime Steps: " + lifetime + performance());
+            return;
+        }
         //0 is blind search or non-informed search
         if(searchType.equals("Random Search")) {
             BlindSearch bs = new BlindSearch(this);
@@ -159,6 +146,14 @@ public class Agent {
             RRHillClimbingSearch rrhss = new RRHillClimbingSearch(this);
             rrhss.hillClimbing();
         }
+        else if(searchType.equals("Simulated Annealing Search")) {
+            SimulatedAnnealingSearch sas = new SimulatedAnnealingSearch(this);
+            sas.annealing();
+        }
+        else if(searchType.equals("Local Beam Search")) {
+            LocalBeamSearch lbs = new LocalBeamSearch(this);
+            lbs.beamSearch();
+        }
         else if(searchType.equals("Iterative Deepening Search")) {
             IterativeDeepeningSearch ids = new IterativeDeepeningSearch(this);
             ids.idSearch();
@@ -167,6 +162,34 @@ public class Agent {
             AStarSearch as = new AStarSearch(this);
             as.asSearch();
         }
+        else if(searchType.equals("A* Search [Bucket Queue]")) {
+            BucketAStarSearch bas = new BucketAStarSearch(this);
+            bas.asSearch();
+        }
+        else if(searchType.equals("Jump Point Search")) {
+            JumpPointSearch jps = new JumpPointSearch(this);
+            jps.jpSearch();
+        }
+        else if(searchType.equals("Bidirectional Search")) {
+            BidirectionalSearch bds = new BidirectionalSearch(this);
+            bds.biSearch();
+        }
+        else if(searchType.equals("Hierarchical A* Search")) {
+            HierarchicalAStarSearch has = new HierarchicalAStarSearch(this);
+            has.hpaSearch();
+        }
+        else if(searchType.equals("D* Lite Search")) {
+            DStarLiteSearch dss = new DStarLiteSearch(this);
+            dss.dStarSearch();
+        }
+        else if(searchType.equals("Lifelong Planning A* Search")) {
+            LPAStarSearch lps = new LPAStarSearch(this);
+            lps.lpaSearch();
+        }
+        else if(searchType.equals("Iterative Deepening A* Search")) {
+            IDAStarSearch idas = new IDAStarSearch(this);
+            idas.idaSearch();
+        }
         else {
             //do nothing
         }
@@ -174,78 +197,39 @@ public class Agent {
     }
     
     /**
-     * Checks state of block.
-     * NOTE: This was used in Blind Search only. 
+     * Determines if the goal object can be reached from home before a search starts.
+     * Random restarts can start from any entry/exit block, so that search only needs
+     * one of them to reach the goal.
+     * @param searchType the search that is about to start
+     * @return false if no path joins the goal to where the robot can start
      */
-    public void checkBlock(){
-        //Is this block an agent?
-        if(board[posX][posY].isBlockAgent() == 1) {
-            destroyed = 1;
-            board[posX][posY].setRobotDeathBlock();
-            board[posX][posY].setTraversed();
-        }
-        else if(board[posX][posY].isBlockObstacle() == 1){
-            if(previousState == 0) {
-                //go right
-                posY++;
-            }
-            else if(previousState == 1) {
-                //go left
-                posY--;
-            }
-            else if(previousState == 2) {
-                //go down
-                posX++;
-            }
-            else if(previousState == 3) {
-                //go up
-                posX--;
-            }
-            else {
-                //How did you get here?
-            }
-        }
-        else if(board[posX][posY].isBlockObjectGoal() == 1){
-            hasObject = 1;
-            board[posX][posY].setTraversed();
-        }
+    public boolean goalReachable(Object searchType) {
+        int goal = model.find(Grid.GOAL);
+        if(goal < 0)
+            return false;
+        Components parts = model.components();
+        if(searchType.equals("Random Restart Hill-Climbing Search"))
+            return parts.connected(goal, startX*width + startY) || parts.connected(goal, model.landmarks().entries);
+        return parts.connected(goal, startX*width + startY);
     }
     
-    /**
-     * Determines if robot has picked up object or not. If it has,
-     * start setting the other traversal state of the blocks in the grid!
-     * NOTE: This is only used in Blind Search.
-     */
-    public void holdObjectMovement() {    
-        if(hasObject == 1) {
-            stepsHome++;
-            board[posX][posY].setHomeTraversed();
-            board[posX][posY].repaint();
-        }
-        else {
-            stepsToObject++;
-            board[posX][posY].setTraversed();
-            board[posX][posY].repaint();
-        }
-    }
-
     /**
      * Determines the performance of the robot through the grid. 
      * @return a string that reports a series of data that shows the robot performance with a search algorithm
      */
     public String performance(){
-        int free = 0;
-        int untouchable = 0;
-        int touched = 0;
-        int numOfSquares = length*width;
+        long free = 0;
+        long untouchable = 0;
+        long touched = 0;
+        long numOfSquares = (long)length*width;
         
         //Record number of squares touched before picking up object, after picking up object and which
         //squares were touched twice
         for(int i = 0; i < length; i++) {
             for(int j = 0; j < width; j++) {
-                if(board[i][j].isBlockObstacle() == 1 || board[i][j].isBlockAgent() == 1)
+                if(model.isObstacle(i, j) || model.isAgent(i, j))
                     untouchable++;
-                if(board[i][j].isBlockFreeAfterSearch() == 1)
+                else if(!model.isTraversed(i, j) && !model.isHomeTraversed(i, j))
                     free++;        
             }
         }
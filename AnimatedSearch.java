@@ -0,0 +1,112 @@
+import javax.swing.JOptionPane;
+
+/**
+ * Runs one of the SearchEngine searches on the board of the simulator and animates it.
+ * The engine does all the searching on the Grid model the Blocks are a view of, and every
+ * block it marks as traversed is shown on the board as the robot reaches it, so each search
+ * has one implementation for both the simulator and headless runs. Once the search is over
+ * its SearchResult is reported in a pop-up.
+ * @author Andrew C. Haynes
+ */
+public class AnimatedSearch extends Thread {
+
+    Agent agent;
+    //one of SearchEngine.SEARCH_TYPES
+    Object searchType;
+    //the search being animated, its modes can be set before the thread starts
+    SearchEngine engine;
+    //block the robot is standing on, null before the first step
+    Block current;
+
+    /**
+     * Connects the robot agent to a search of the engine.
+     * @param agent Robot agent committing the search
+     * @param searchType the search to run, one of SearchEngine.SEARCH_TYPES
+     */
+    public AnimatedSearch(Agent agent, Object searchType) {
+        this.agent = agent;
+        this.searchType = searchType;
+        engine = new Replay(agent.model);
+    }
+
+    /**
+     * Starts the thread that runs the search and reports how the robot did.
+     */
+    public void run() {
+        SearchResult result = engine.search(searchType);
+        agent.stepsToObject = result.stepsToObject;
+        agent.stepsHome = result.stepsHome;
+        agent.totalSteps = result.totalSteps;
+        agent.hasObject = engine.hasObject;
+        if(result.status == SearchResult.DIED) {
+            agent.destroyed = 1;
+            agent.board[engine.pos / agent.width][engine.pos % agent.width].setRobotDeathBlock();
+        }
+        clearCurrentSpot();
+        JOptionPane.showMessageDialog(null, result.report());
+    }
+
+    /**
+     * The engine of an animated search, which shows every block it traverses on the board.
+     */
+    class Replay extends SearchEngine {
+
+        Replay(Grid grid) {
+            super(grid);
+        }
+
+        void mark(int cell) {
+            super.mark(cell);
+            traversingBlocks(cell, hasObject == 1);
+        }
+    }
+
+    /**
+     * Moves the robot onto a block of the board and colors it in.
+     * @param cell block the robot reached, as x*width + y
+     * @param homeward true if the robot has picked up the object
+     */
+    public void traversingBlocks(int cell, boolean homeward) {
+        try {
+            setThreadSpeed();
+        }
+        catch (Exception e) {}
+        clearCurrentSpot();
+        current = agent.board[cell / agent.width][cell % agent.width];
+        current.iAmHere = true;
+        if(homeward)
+            current.setHomeTraversed();
+        else
+            current.setTraversed();
+        current.repaint();
+    }
+
+    /**
+     * Clears the current block that the agent is stepping on
+     * for animation purposes.
+     */
+    public void clearCurrentSpot() {
+        if(current != null) {
+            current.iAmHere = false;
+            current.repaint();
+        }
+    }
+
+    /**
+     * Sets the speed of the robot agent going through
+     * the environment.
+     * @throws Exception Thread interruption in sleep
+     */
+    public void setThreadSpeed() throws Exception {
+        if(agent.length < 10 || agent.width < 10) {
+            Thread.sleep(200);
+        }
+        else if(agent.length >= 10 && agent.length < 15
+                || agent.width >= 10 && agent.width < 15) {
+            Thread.sleep(100);
+        }
+        else {
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import java.util.SplittableRandom;
+
+/**
+ * The cooling schedule of a simulated annealing search. A move that gets closer to the
+ * target is always taken, and a move that gets further away is taken with a chance of
+ * e^(-loss/temperature), so a robot stuck in a local minimum or on a plateau can climb out
+ * of it while the temperature is high. The temperature is multiplied by the cooling rate after
+ * every step, and once it is frozen it is raised to the start temperature again, so a robot
+ * stuck far from the target keeps getting chances to leave instead of standing still.
+ *
+ * Losses are measured in the units of the evaluation, about one per step, so a start
+ * temperature of 1 takes a step away from the target a third of the time.
+ * @author Andrew C. Haynes
+ */
+public class AnnealingSchedule {
+
+    public static final double START_TEMPERATURE = 1.0;
+    public static final double COOLING_RATE = 0.99;
+    //below this, a step away is all but never taken
+    public static final double FROZEN = 0.05;
+
+    SplittableRandom rand;
+    double start;
+    double rate;
+    double temperature;
+    //times the schedule was frozen and started again
+    int reheats;
+
+    /**
+     * Creates a schedule with the default temperatures.
+     * @param seed seed of the random choices
+     */
+    public AnnealingSchedule(long seed) {
+        this(START_TEMPERATURE, COOLING_RATE, seed);
+    }
+
+    /**
+     * Creates a schedule.
+     * @param start temperature at the first step and after each reheat
+     * @param rate number between 0 and 1 the temperature is multiplied by after every step
+     * @param seed seed of the random choices
+     */
+    public AnnealingSchedule(double start, double rate, long seed) {
+        if(!(start > FROZEN) || !(rate > 0 && rate < 1))
+            throw new IllegalArgumentException("Bad cooling schedule: " + start + ", " + rate);
+        rand = new SplittableRandom(seed);
+        this.start = start;
+        this.rate = rate;
+        temperature = start;
+        reheats = 0;
+    }
+
+    /**
+     * Decides whether to take a move.
+     * @param loss how much the move raises the evaluation, negative if it lowers it
+     * @return true if the robot should take the move
+     */
+    public boolean accept(double loss) {
+        if(Double.compare(loss, 0) <= 0)
+            return true;
+        return rand.nextDouble() < Math.exp(-loss / temperature);
+    }
+
+    /**
+     * Lowers the temperature after a step, starting again once it is frozen.
+     */
+    public void cool() {
+        temperature *= rate;
+        if(temperature < FROZEN) {
+            temperature = start;
+            reheats++;
+        }
+    }
+
+    /**
+     * Puts the neighbors of a block in a random order, so the moves are tried in that order.
+     * @param around x and y of each neighbor, one after the other
+     */
+    public void shuffle(int[] around) {
+        for(int i = around.length / 2 - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int x = around[2*i];
+            int y = around[2*i + 1];
+            around[2*i] = around[2*j];
+            around[2*i + 1] = around[2*j + 1];
+            around[2*j] = x;
+            around[2*j + 1] = y;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Breadth-First Search from both ends of a path at once. One thread grows a frontier out
+ * from the start and another grows one out from the target, level by level, and they stop
+ * once the frontiers have met and no shorter meeting is possible. Each side only has to
+ * reach about half way, so on open grids far fewer blocks are expanded than by one search
+ * reaching all the way, and the second side runs on a core that is otherwise idle.
+ *
+ * Both sides write the steps to their own end into a shared array and read the other side's.
+ * Every block is labelled by one side before that side reads the other side's label, so when
+ * both sides reach a block at least one of them sees the other and reports the meeting.
+ * A side stops once the shortest meeting is no longer than the levels both have finished plus
+ * one, since any path not found yet would have to be longer than that.
+ * Obstacles and agents are both walls here, and every step costs one.
+ * @author Andrew C. Haynes
+ */
+public class BidirectionalBFS {
+
+    public static final int UNREACHED = -1;
+    static final int FORWARD = 0;
+    static final int BACKWARD = 1;
+
+    Grid grid;
+    int length;
+    int width;
+    //steps from the start and from the target to each block, UNREACHED if not labelled yet
+    AtomicIntegerArray[] steps;
+    //last level each side has finished labelling
+    AtomicIntegerArray levels;
+    //length of the shortest meeting so far, and the block the frontiers met at
+    AtomicInteger best;
+    int meet;
+    volatile boolean done;
+    //blocks labelled and largest frontier of each side
+    int[] expanded;
+    int[] widest;
+
+    /**
+     * Creates the search for a grid.
+     * @param grid the grid to search
+     */
+    public BidirectionalBFS(Grid grid) {
+        this.grid = grid;
+        length = grid.length;
+        width = grid.width;
+        expanded = new int[2];
+        widest = new int[2];
+    }
+
+    /**
+     * Determines if a grid is small enough to keep the steps of both sides for every block.
+     * @param grid the grid to search
+     * @return false for grids that are stored in tiles
+     */
+    public static boolean fits(Grid grid) {
+        return (long)grid.length*grid.width <= Grid.TILED_BLOCKS;
+    }
+
+    /**
+     * Finds a shortest path between two blocks, searching from both ends on two threads.
+     * @param from block the path starts at, as x*width + y
+     * @param target block the path ends at
+     * @return the blocks of the path from start to target, or null if there is none
+     */
+    public int[] search(int from, int target) {
+        steps = new AtomicIntegerArray[]{label(), label()};
+        levels = new AtomicIntegerArray(2);
+        best = new AtomicInteger(Integer.MAX_VALUE);
+        meet = UNREACHED;
+        done = false;
+        expanded[FORWARD] = 0;
+        expanded[BACKWARD] = 0;
+        widest[FORWARD] = 0;
+        widest[BACKWARD] = 0;
+        Thread backward = new Thread(() -> grow(BACKWARD, target));
+        backward.start();
+        grow(FORWARD, from);
+        try {
+            backward.join();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if(meet == UNREACHED)
+            return null;
+        return path(meet);
+    }
+
+    /**
+     * Returns how many blocks both sides labelled during the last search.
+     * @return blocks expanded by the forward and backward frontiers
+     */
+    public int expanded() {
+        return expanded[FORWARD] + expanded[BACKWARD];
+    }
+
+    /**
+     * Returns the largest frontiers of the last search, both sides together.
+     * @return blocks waiting in the largest frontier of each side
+     */
+    public int widest() {
+        return widest[FORWARD] + widest[BACKWARD];
+    }
+
+    AtomicIntegerArray label() {
+        AtomicIntegerArray a = new AtomicIntegerArray(length*width);
+        for(int i = 0; i < length*width; i++)
+            a.lazySet(i, UNREACHED);
+        return a;
+    }
+
+    /**
+     * Grows one side's frontier a level at a time until the search is done.
+     * @param side FORWARD or BACKWARD
+     * @param start block the side starts at
+     */
+    void grow(int side, int start) {
+        AtomicIntegerArray mine = steps[side];
+        AtomicIntegerArray theirs = steps[1 - side];
+        int[] frontier = new int[]{start};
+        int size = 1;
+        int[] next = new int[16];
+        mine.set(start, 0);
+        expanded[side]++;
+        if(theirs.get(start) != UNREACHED)
+            offer(start, theirs.get(start));
+        int depth = 0;
+        while(size > 0 && !done) {
+            if(widest[side] < size)
+                widest[side] = size;
+            int count = 0;
+            for(int i = 0; i < size; i++) {
+                int x = frontier[i] / width;
+                int y = frontier[i] % width;
+                int[] n = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+                for(int j = 0; j < 8; j += 2) {
+                    if(!open(n[j], n[j+1]))
+                        continue;
+                    int child = n[j]*width + n[j+1];
+                    if(mine.get(child) != UNREACHED)
+                        continue;
+                    mine.set(child, depth + 1);
+                    expanded[side]++;
+                    int other = theirs.get(child);
+                    if(other != UNREACHED)
+                        offer(child, depth + 1 + other);
+                    if(count == next.length)
+                        next = java.util.Arrays.copyOf(next, count*2);
+                    next[count++] = child;
+                }
+            }
+            depth++;
+            levels.set(side, depth);
+            //paths not found yet are longer than both finished levels together
+            if(best.get() <= levels.get(FORWARD) + levels.get(BACKWARD) + 1)
+                break;
+            int[] swap = frontier;
+            frontier = next;
+            next = swap.length >= count ? swap : new int[count];
+            size = count;
+        }
+        //a side that ran out of blocks has labelled everything it can reach,
+        //so the other side cannot find anything new either
+        done = true;
+    }
+
+    /**
+     * Records a meeting of the frontiers if it is the shortest one so far.
+     * @param cell block both sides reached
+     * @param total steps of the path through the block
+     */
+    synchronized void offer(int cell, int total) {
+        if(total < best.get()) {
+            meet = cell;
+            best.set(total);
+        }
+    }
+
+    /**
+     * Determines if a block can be walked onto.
+     * @param x row of the block
+     * @param y column of the block
+     * @return true if the block is in the grid and is not an obstacle or an agent
+     */
+    boolean open(int x, int y) {
+        return grid.inBounds(x, y) && !grid.isObstacle(x, y) && !grid.isAgent(x, y);
+    }
+
+    /**
+     * Follows the steps of each side downhill from the block the frontiers met at.
+     * @param cell the meeting block
+     * @return the blocks of the path from the start to the target
+     */
+    int[] path(int cell) {
+        int[] path = new int[steps[FORWARD].get(cell) + steps[BACKWARD].get(cell) + 1];
+        int i = steps[FORWARD].get(cell);
+        path[i] = cell;
+        for(int c = cell; i > 0; ) {
+            c = downhill(FORWARD, c);
+            path[--i] = c;
+        }
+        i = steps[FORWARD].get(cell);
+        for(int c = cell; i < path.length - 1; ) {
+            c = downhill(BACKWARD, c);
+            path[++i] = c;
+        }
+        return path;
+    }
+
+    /**
+     * Finds a neighbor one step closer to a side's end.
+     * @param side FORWARD or BACKWARD
+     * @param cell block as x*width + y
+     * @return the neighbor
+     */
+    int downhill(int side, int cell) {
+        int x = cell / width;
+        int y = cell % width;
+        int s = steps[side].get(cell);
+        int[] n = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+        for(int j = 0; j < 8; j += 2) {
+            if(grid.inBounds(n[j], n[j+1]) && steps[side].get(n[j]*width + n[j+1]) == s - 1)
+                return n[j]*width + n[j+1];
+        }
+        return UNREACHED;
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * Bidirectional Search plans the path before the robot moves. A Breadth-First Search runs
+ * out from home and another runs out from the goal object, each on its own thread, until the
+ * two frontiers meet. The robot then walks the path to the object, and walks the same path
+ * backwards to get home, so the way home needs no second search.
+ * Agents are walls to both frontiers, and every step counts as one.
+ * (Note: There are instances where no paths exist.)
+ * @author Andrew C. Haynes
+ */
+public class BidirectionalSearch extends AnimatedSearch {
+
+    /**
+     * Instantiates the Bidirectional Search by connecting the robot agent to the
+     * search.
+     * @param agent Robot agent committing the search
+     */
+    public BidirectionalSearch(Agent agent) {
+        super(agent, "Bidirectional Search");
+    }
+
+    /**
+     * Performs a Bidirectional Search from home to the object and back.
+     */
+    public void biSearch() {
+        this.start();
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * One bit per block of the grid, stored row by row in longs so that 64 blocks
+ * of a row can be tested and changed at a time. Used for frontiers, visited blocks
+ * and blocked blocks in the bitboard searches, where a whole frontier is expanded to
+ * its four neighbors with shifts, ands and ors instead of one block at a time.
+ * @author Andrew C. Haynes
+ */
+public class BitBoard {
+
+    public int length;
+    public int width;
+    //longs per row
+    int words;
+    long[] bits;
+
+    /**
+     * Creates an empty bitboard the size of the grid.
+     * @param len length of the grid
+     * @param wid width of the grid
+     */
+    public BitBoard(int len, int wid) {
+        length = len;
+        width = wid;
+        words = (wid + 63) >>> 6;
+        bits = new long[len*words];
+    }
+
+    /**
+     * Creates a bitboard of the blocks a robot can step on, which is every block
+     * that is not an obstacle.
+     * @param grid the grid
+     * @return a bitboard with a bit for each block that is not an obstacle
+     */
+    public static BitBoard open(Grid grid) {
+        BitBoard board = new BitBoard(grid.length, grid.width);
+        for(int i = 0; i < grid.length; i++) {
+            for(int j = 0; j < grid.width; j++) {
+                if(!grid.isObstacle(i, j))
+                    board.set(i, j);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Creates a bitboard of the agent blocks of the grid.
+     * @param grid the grid
+     * @return a bitboard with a bit for each agent
+     */
+    public static BitBoard agents(Grid grid) {
+        BitBoard board = new BitBoard(grid.length, grid.width);
+        for(int i = 0; i < grid.length; i++) {
+            for(int j = 0; j < grid.width; j++) {
+                if(grid.isAgent(i, j))
+                    board.set(i, j);
+            }
+        }
+        return board;
+    }
+
+    public boolean get(int x, int y) {
+        return (bits[x*words + (y >>> 6)] & (1L << y)) != 0;
+    }
+
+    public void set(int x, int y) {
+        bits[x*words + (y >>> 6)] |= 1L << y;
+    }
+
+    public void clear(int x, int y) {
+        bits[x*words + (y >>> 6)] &= ~(1L << y);
+    }
+
+    /**
+     * Clears every bit.
+     */
+    public void clear() {
+        java.util.Arrays.fill(bits, 0L);
+    }
+
+    /**
+     * Sets the bits of a row from one column to another.
+     * @param x row
+     * @param from first column, inclusive
+     * @param to last column, inclusive
+     */
+    public void setRange(int x, int from, int to) {
+        if(from < 0)
+            from = 0;
+        if(to >= width)
+            to = width - 1;
+        if(from > to)
+            return;
+        int first = from >>> 6;
+        int last = to >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - (to & 63));
+        if(first == last) {
+            bits[x*words + first] |= firstMask & lastMask;
+        }
+        else {
+            bits[x*words + first] |= firstMask;
+            for(int w = first + 1; w < last; w++)
+                bits[x*words + w] = -1L;
+            bits[x*words + last] |= lastMask;
+        }
+    }
+
+    /**
+     * Copies the bits of another bitboard of the same size.
+     * @param other bitboard to copy
+     */
+    public void copy(BitBoard other) {
+        System.arraycopy(other.bits, 0, bits, 0, bits.length);
+    }
+
+    public void or(BitBoard other) {
+        for(int i = 0; i < bits.length; i++)
+            bits[i] |= other.bits[i];
+    }
+
+    public void and(BitBoard other) {
+        for(int i = 0; i < bits.length; i++)
+            bits[i] &= other.bits[i];
+    }
+
+    public void andNot(BitBoard other) {
+        for(int i = 0; i < bits.length; i++)
+            bits[i] &= ~other.bits[i];
+    }
+
+    /**
+     * Determines if the two bitboards share a bit.
+     * @param other bitboard of the same size
+     * @return true if a block is set in both
+     */
+    public boolean intersects(BitBoard other) {
+        for(int i = 0; i < bits.length; i++) {
+            if((bits[i] & other.bits[i]) != 0)
+                return true;
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        for(int i = 0; i < bits.length; i++) {
+            if(bits[i] != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Counts the set bits.
+     * @return number of blocks set
+     */
+    public int cardinality() {
+        int count = 0;
+        for(int i = 0; i < bits.length; i++)
+            count += Long.bitCount(bits[i]);
+        return count;
+    }
+
+    /**
+     * Returns the next set block at or after a block, in row by row order.
+     * @param cell block to start at (x*width + y)
+     * @return the next set block, or -1 if there is none
+     */
+    public int nextSetCell(int cell) {
+        if(cell >= length*width)
+            return -1;
+        int x = cell / width;
+        int y = cell % width;
+        int w = y >>> 6;
+        long word = bits[x*words + w] & (-1L << y);
+        while(true) {
+            if(word != 0)
+                return x*width + (w << 6) + Long.numberOfTrailingZeros(word);
+            w++;
+            if(w == words) {
+                w = 0;
+                x++;
+                if(x == length)
+                    return -1;
+            }
+            word = bits[x*words + w];
+        }
+    }
+
+    /**
+     * Expands every block of a frontier to its four neighbors, 64 blocks at a time.
+     * out = neighbors(frontier) and allowed and not exclude.
+     * @param frontier blocks to expand
+     * @param allowed blocks the frontier may grow into
+     * @param exclude blocks the frontier may not grow into, such as visited blocks
+     * @param out where the new frontier is stored, must not be one of the other bitboards
+     */
+    public static void expand(BitBoard frontier, BitBoard allowed, BitBoard exclude, BitBoard out) {
+        int words = frontier.words;
+        long[] src = frontier.bits;
+        for(int x = 0; x < frontier.length; x++) {
+            int row = x*words;
+            for(int w = 0; w < words; w++) {
+                int i = row + w;
+                long s = src[i];
+                //RIGHT and LEFT, carrying bits across the longs of a row
+                long side = (s << 1) | (s >>> 1);
+                if(w > 0)
+                    side |= src[i-1] >>> 63;
+                if(w < words - 1)
+                    side |= src[i+1] << 63;
+                //UP and DOWN
+                long vertical = 0;
+                if(x > 0)
+                    vertical |= src[i-words];
+                if(x < frontier.length - 1)
+                    vertical |= src[i+words];
+                out.bits[i] = (side | vertical) & allowed.bits[i] & ~exclude.bits[i];
+            }
+        }
+    }
+}
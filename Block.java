@@ -10,58 +10,49 @@ public class Block extends JPanel {
     
     public int xPos;
     public int yPos;
-    //Determines if this is the starting block for the robot agent
-    public int home;
-    //Robot agent has touched this block before picking up object
-    public int traversed;
-    //Robot agent has touched this block after picking up the object
-    public int homeTraversed;
-    //This Block is an obstacle and cannot be traversed
-    public int obstacle;
-    //This Block is agent and will destroy the robot agent if the robot agent traverses it
-    public int agent;
-    //This Block has the object goal for the robot agent to pick up
-    public int goal;
-    //This Block is where the robot agent died
-    public int robotDiedHere;
+    //Headless grid model this Block is a view of. It holds the home, traversed, obstacle,
+    //agent, goal and robot death states of the block.
+    public Grid model;
+    //where the block is in its model, the same as xPos and yPos unless the block stands alone
+    int cellX;
+    int cellY;
     //Allows the Block to paint it self to its current state
     public Graphics2D g2;
-    //Path cost for heuristic functions
-    public double pathCost;
-    //Path cost for path so far
-    public double gCost;
-    //used for graph-based search
-    public int stateChecked;
-    //the depth of this node in the grid
-    public int depth;
     //current agent location
     public boolean iAmHere;
     
     /**
      * Creates a JPanel that have various states such as traversed, agent, obstacle 
      * or a free block. It can paint itself to its appropriate state and show if the robot agent 
-     * has died at this particular block.
+     * has died at this particular block. The block is the only block of a 1x1 grid model of its own.
      * @param x
      * @param y
      */
     public Block(int x, int y){
+        this(new Grid(1, 1), 0, 0);
+        xPos = x;
+        yPos = y;
+    }
+    
+    /**
+     * Creates a Block that is the view of a block in the headless grid model.
+     * Changes made through the mutators are written through to the model.
+     * @param model the grid model
+     * @param x
+     * @param y
+     */
+    public Block(Grid model, int x, int y){
         setBorder(BorderFactory.createLineBorder(Color.black));
         setPreferredSize(new Dimension(10,10));
+        this.model = model;
         xPos = x;
         yPos = y;
-        home = 0;
-        traversed = 0;
-        obstacle = 0;
-        agent = 0;
-        goal = 0;
-        homeTraversed = 0;
-        robotDiedHere = 0;
-        pathCost = 0.0;
-        gCost = 0.0;
-        stateChecked = 0;
-        depth = -1;
+        cellX = x;
+        cellY = y;
         iAmHere = false;
         setBackground(Color.white);
+        if(model.isGoal(cellX, cellY))
+            setBackground(Color.yellow);
     }
     
     /**
@@ -70,10 +61,10 @@ public class Block extends JPanel {
      * @return 0 if it is not free, 1 if it is
      */
     public int isBlockFree(){
-        if(agent == 1 || obstacle == 1 || goal == 1 || home == 1)
-            return 0;
-        else
+        if(model.isFree(cellX, cellY))
             return 1;
+        else
+            return 0;
     }
     
     /**
@@ -82,7 +73,7 @@ public class Block extends JPanel {
      * @return 0 if it is not free, 1 if it is
      */
     public int isBlockFreeAfterSearch() {
-        if(agent == 1 || obstacle == 1 || traversed == 1 || homeTraversed == 1)
+        if(isBlockAgent() == 1 || isBlockObstacle() == 1 || isBlockTraversed() == 1 || isBlockHomeTraversed() == 1)
             return 0;
         else
             return 1;
@@ -94,7 +85,7 @@ public class Block extends JPanel {
      * @return 0 if it is not an agent, 1 if it is
      */
     public int isBlockAgent() {
-        if(agent == 1)
+        if(model.isAgent(cellX, cellY))
             return 1;
         else
             return 0;
@@ -105,7 +96,7 @@ public class Block extends JPanel {
      * @return 0 if it is not an obstacle, 1 if it is
      */
     public int isBlockObstacle() {
-        if(obstacle == 1)
+        if(model.isObstacle(cellX, cellY))
             return 1;
         else
             return 0;
@@ -116,7 +107,7 @@ public class Block extends JPanel {
      * @return 0 if it is not traversed, 1 if it is
      */
     public int isBlockTraversed() {
-        if(traversed == 1)
+        if(model.isTraversed(cellX, cellY))
             return 1;
         else
             return 0;
@@ -127,7 +118,7 @@ public class Block extends JPanel {
      * @return 0 if it is not traversed, 1 if it is
      */
     public int isBlockHomeTraversed() {
-        if(homeTraversed == 1)
+        if(model.isHomeTraversed(cellX, cellY))
             return 1;
         else
             return 0;
@@ -138,7 +129,18 @@ public class Block extends JPanel {
      * @return 0 if it is not carrying the object goal, 1 if it is
      */
     public int isBlockObjectGoal() {
-        if(goal == 1) 
+        if(model.isGoal(cellX, cellY)) 
+            return 1;
+        else
+            return 0;
+    }
+    
+    /**
+     * Returns if block is the starting block for the robot agent or not.
+     * @return 0 if it is not home, 1 if it is
+     */
+    public int isBlockHome() {
+        if(model.isHome(cellX, cellY))
             return 1;
         else
             return 0;
@@ -148,16 +150,22 @@ public class Block extends JPanel {
      * Mutator to set the block as a starting block for the robot agent.
      */
     public void setHome() {
-        home = 1;
+        model.setHome(cellX, cellY);
         setBackground(Color.green);
     }
     
+    /**
+     * Mutator to remove the starting block for the robot agent from this block.
+     */
+    public void clearHome() {
+        model.clearHome(cellX, cellY);
+    }
+    
     /**
      * Mutator to set the block as an agent.
      */
     public void setAgent() {
-         agent = 1;
-         obstacle = 0;
+         model.setAgent(cellX, cellY);
          setBackground(Color.red);
     }
     
@@ -165,9 +173,7 @@ public class Block extends JPanel {
      * Mutator to set the block as an obstacle.
      */
     public void setObstacle() {
-        obstacle = 1;
-        agent = 0;
-        pathCost = Double.POSITIVE_INFINITY;
+        model.setObstacle(cellX, cellY);
         setBackground(Color.black);
     }
     
@@ -175,9 +181,7 @@ public class Block extends JPanel {
      * Mutator to set the block as the one to carry the object goal.
      */
     public void setBlockObjectGoal() {
-        goal = 1;
-        agent = 0;
-        obstacle = 0;
+        model.setGoal(cellX, cellY);
         setBackground(Color.yellow);
     }
     
@@ -185,21 +189,21 @@ public class Block extends JPanel {
      * Mutator to set the block as traversed before object pick up.
      */
     public void setTraversed(){
-        traversed = 1;
+        model.setTraversed(cellX, cellY);
     }
     
     /**
      * Mutator to set the block as traversed after object pick up.
      */
     public void setHomeTraversed() {
-        homeTraversed = 1;
+        model.setHomeTraversed(cellX, cellY);
     }
     
     /**
      * Mutator to set the block as the block where the robot agent died.
      */
     public void setRobotDeathBlock() {
-        robotDiedHere = 1;
+        model.setRobotDeath(cellX, cellY);
         repaint();
     }
     
@@ -225,6 +229,12 @@ public class Block extends JPanel {
         g2.setRenderingHint(
             RenderingHints.KEY_COLOR_RENDERING,
             RenderingHints.VALUE_COLOR_RENDER_QUALITY);
+        int traversed = isBlockTraversed();
+        int homeTraversed = isBlockHomeTraversed();
+        int obstacle = isBlockObstacle();
+        int agent = isBlockAgent();
+        int goal = isBlockObjectGoal();
+        int home = isBlockHome();
         //it has not been stepped on
         if(traversed == 0 && homeTraversed == 0) {
             if(obstacle == 1) {
@@ -314,7 +324,7 @@ public class Block extends JPanel {
             }
         }
         //doesn't need to be in above condition constraint
-        if(robotDiedHere == 1){
+        if(model.isRobotDeath(cellX, cellY)){
             g2.setColor(Color.black);
             g2.drawLine(this.getWidth()/6, this.getHeight()/6, 5*this.getWidth()/6, 5*this.getHeight()/6); //initX, initY, endX, endY
             g2.drawLine(this.getWidth()/6, 5*this.getHeight()/6, 5*this.getWidth()/6, this.getHeight()/6); //initX, initY, endX, endY
@@ -0,0 +1,26 @@
+/**
+ * A* Search on a bucket queue (Dial's algorithm). Every step costs a whole number,
+ * one plus the terrain cost of the block entered, and the heuristic counts whole
+ * steps, so every fitness cost has a bucket and no costs are ever compared.
+ * (Note: There are instances where no paths exist.)
+ * @author Andrew C. Haynes
+ */
+public class BucketAStarSearch extends AnimatedSearch {
+
+    /**
+     * Instantiates the bucket queue A* Search by connecting the robot agent to the
+     * search.
+     * @param agent Robot agent committing the search
+     */
+    public BucketAStarSearch(Agent agent) {
+        super(agent, "A* Search [Bucket Queue]");
+    }
+
+    /**
+     * Performs an A* Search where the fitness cost of every node is the cost thus far plus the steps
+     * to the goal.
+     */
+    public void asSearch() {
+        this.start();
+    }
+}
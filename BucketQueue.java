@@ -0,0 +1,119 @@
+/**
+ * A bucket queue (Dial's queue) of blocks keyed by small whole numbers, for A* on grids
+ * where every step costs a whole number. Each key has a bucket, and the buckets are used
+ * round and round, so adding a block and taking the one with the lowest key take constant
+ * time with no comparisons between blocks.
+ *
+ * A* with a consistent heuristic never adds a block whose key is more than the highest
+ * step cost plus one above the lowest key in the queue, so that many buckets are enough.
+ * The queue grows if a key falls outside them anyway.
+ *
+ * A block is not moved when it gets a lower key; it is added again, and the search skips
+ * the copy that comes out later. Blocks of a bucket come out last in, first out, so the
+ * search keeps going deeper along blocks of equal cost.
+ * @author Andrew C. Haynes
+ */
+public class BucketQueue {
+
+    //blocks of each bucket, and how many each holds
+    int[][] buckets;
+    int[] counts;
+    int mask;
+    //no block in the queue has a lower key than this
+    int current;
+    //highest key in the queue
+    int highest;
+    int size;
+
+    /**
+     * Creates an empty queue.
+     * @param spread how far above the lowest key any key in the queue can be
+     */
+    public BucketQueue(int spread) {
+        int n = Integer.highestOneBit(Math.max(spread, 1)) << 1;
+        buckets = new int[n][];
+        counts = new int[n];
+        mask = n - 1;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds a block to the queue.
+     * @param cell block as x*width + y
+     * @param key the key of the block, such as its fitness cost
+     */
+    public void push(int cell, int key) {
+        if(size == 0) {
+            current = key;
+            highest = key;
+        }
+        int low = Math.min(current, key);
+        int high = Math.max(highest, key);
+        if(high - low > mask)
+            grow(high - low);
+        current = low;
+        highest = high;
+        int b = key & mask;
+        if(buckets[b] == null)
+            buckets[b] = new int[8];
+        else if(counts[b] == buckets[b].length)
+            buckets[b] = java.util.Arrays.copyOf(buckets[b], counts[b]*2);
+        buckets[b][counts[b]++] = cell;
+        size++;
+    }
+
+    /**
+     * Returns the lowest key of a block in the queue.
+     * @return the lowest key
+     */
+    public int minKey() {
+        while(counts[current & mask] == 0)
+            current++;
+        return current;
+    }
+
+    /**
+     * Removes a block with the lowest key.
+     * @return the block as x*width + y
+     */
+    public int poll() {
+        int b = minKey() & mask;
+        size--;
+        return buckets[b][--counts[b]];
+    }
+
+    /**
+     * Removes every block.
+     */
+    public void clear() {
+        java.util.Arrays.fill(counts, 0);
+        size = 0;
+    }
+
+    /**
+     * Makes room for keys that far apart, putting every bucket back under its key.
+     */
+    void grow(int spread) {
+        int n = Integer.highestOneBit(spread) << 1;
+        int[][] grown = new int[n][];
+        int[] grownCounts = new int[n];
+        for(int b = 0; b <= mask; b++) {
+            if(counts[b] == 0)
+                continue;
+            int key = current + ((b - current) & mask);
+            grown[key & (n - 1)] = buckets[b];
+            grownCounts[key & (n - 1)] = counts[b];
+        }
+        buckets = grown;
+        counts = grownCounts;
+        mask = n - 1;
+    }
+}
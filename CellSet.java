@@ -0,0 +1,80 @@
+import java.util.HashMap;
+/**
+ * A set of blocks that can add, remove and look up a block, and pick one at random,
+ * in constant time. The blocks are kept packed in an array, and removing a block moves
+ * the last block into its place.
+ * @author Andrew C. Haynes
+ */
+public class CellSet {
+
+    int[] cells;
+    int size;
+    //where each block is in cells
+    HashMap<Integer, Integer> slots;
+
+    /**
+     * Creates an empty set.
+     */
+    public CellSet() {
+        cells = new int[4];
+        size = 0;
+        slots = new HashMap<>();
+    }
+
+    /**
+     * Adds a block to the set.
+     * @param cell block as x*width + y
+     */
+    public void add(int cell) {
+        if(slots.containsKey(cell))
+            return;
+        if(size == cells.length)
+            cells = java.util.Arrays.copyOf(cells, size*2);
+        slots.put(cell, size);
+        cells[size++] = cell;
+    }
+
+    /**
+     * Removes a block from the set.
+     * @param cell block as x*width + y
+     */
+    public void remove(int cell) {
+        Integer slot = slots.remove(cell);
+        if(slot == null)
+            return;
+        int last = cells[--size];
+        if(slot != size) {
+            cells[slot] = last;
+            slots.put(last, slot);
+        }
+    }
+
+    public boolean contains(int cell) {
+        return slots.containsKey(cell);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns a block of the set.
+     * @param i a number from 0 to size() - 1
+     * @return the block as x*width + y
+     */
+    public int get(int i) {
+        return cells[i];
+    }
+
+    /**
+     * Returns any block of the set.
+     * @return the block as x*width + y, or -1 if the set is empty
+     */
+    public int first() {
+        return size == 0 ? -1 : cells[0];
+    }
+}
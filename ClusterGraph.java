@@ -0,0 +1,486 @@
+/**
+ * Hierarchical A* (HPA*) over a grid split into 64x64 clusters, the same squares a TiledGrid
+ * keeps its tiles in. Where two clusters touch, each stretch of border blocks that are open on
+ * both sides gets an entrance: one in the middle of a short stretch, one at each end of a long one.
+ * The entrances of a cluster are joined by the steps between them inside the cluster, and to the
+ * entrance across the border by one step. A path is found by A* over this small graph of entrances
+ * and is then filled in block by block inside each cluster it passes through.
+ *
+ * A cluster's entrances and the steps between them are worked out the first time a search
+ * reaches the cluster, and Grid.clusters keeps them until the obstacles or agents change, so
+ * later searches on the same grid only pay for clusters nobody has reached before.
+ * Searches on several threads can share the graph: clusters are worked out one at a time
+ * under a lock and never changed after, and each path keeps its own search in a Route.
+ * Paths go through entrances, so they are close to the shortest but not always the shortest.
+ * Obstacles and agents are both walls here, and every step costs one.
+ * @author Andrew C. Haynes
+ */
+public class ClusterGraph {
+
+    public static final int NONE = -1;
+    //the start and the target of a path are the first two nodes of the entrance graph
+    static final int START = 0;
+    static final int TARGET = 1;
+    static final int BITS = TiledGrid.TILE_BITS;
+    static final int SIZE = TiledGrid.TILE_SIZE;
+    static final int MASK = TiledGrid.TILE_MASK;
+    //stretches of open border shorter than this get one entrance in the middle
+    static final int LONG_ENTRANCE = 6;
+
+    Grid grid;
+    int length;
+    int width;
+    int across;
+    //the Grid version the clusters were found for
+    int version;
+    //entrances of each cluster and the steps between them, null until the cluster is first reached
+    java.util.concurrent.atomic.AtomicReferenceArray<Cluster> clusters;
+    //nodes handed out to the clusters worked out so far
+    volatile int total;
+    //entrances of the cluster being worked out
+    int[] found;
+    //searches inside the cluster being worked out
+    Flood builder;
+
+    /**
+     * Splits a grid into clusters. No cluster is worked out until a search reaches it.
+     * @param grid the grid to search
+     */
+    public ClusterGraph(Grid grid) {
+        this.grid = grid;
+        length = grid.length;
+        width = grid.width;
+        version = grid.version;
+        across = (width + MASK) >>> BITS;
+        int down = (length + MASK) >>> BITS;
+        clusters = new java.util.concurrent.atomic.AtomicReferenceArray<>(down*across);
+        total = 2;
+        builder = new Flood();
+    }
+
+    /**
+     * Finds a path between two blocks over the entrances of the clusters.
+     * @param from block the path starts at, as x*width + y
+     * @param target block the path ends at
+     * @return the search, with the blocks of the path from start to target or null if there is none
+     */
+    public Route path(int from, int target) {
+        Route route = new Route();
+        route.find(from, target);
+        return route;
+    }
+
+    /**
+     * The entrances of one cluster and the steps between them, never changed once worked out.
+     */
+    static class Cluster {
+        //entrance blocks
+        final int[] entrances;
+        //steps between each pair of entrances, NONE if they are not joined inside the cluster
+        final int[] steps;
+        //node of the first entrance, the others follow it
+        final int first;
+
+        Cluster(int[] entrances, int[] steps, int first) {
+            this.entrances = entrances;
+            this.steps = steps;
+            this.first = first;
+        }
+
+        /**
+         * Returns which entrance of the cluster a block is.
+         * @param cell block as x*width + y
+         * @return its place in the entrances, or NONE
+         */
+        int index(int cell) {
+            for(int i = 0; i < entrances.length; i++) {
+                if(entrances[i] == cell)
+                    return i;
+            }
+            return NONE;
+        }
+    }
+
+    /**
+     * One path asked of the graph: the A* over the entrances, its own searches inside the
+     * clusters, and what it cost.
+     */
+    class Route {
+        //the blocks of the path, null if there is none
+        int[] path;
+        //entrances expanded and largest open list
+        int expanded;
+        int widest;
+        Flood flood;
+        int target;
+        //the search over the entrance graph, by node, kept in tables 64 nodes wide and as many rows
+        //as the nodes handed out need
+        CostTable gCost;
+        ParentTable parents;
+        IndexedHeap open;
+        VisitedSet closed;
+        //block of each node reached
+        ParentTable cells;
+        //rows of 64 nodes the tables have room for
+        int rows;
+
+        Route() {
+            flood = new Flood();
+        }
+
+        /**
+         * Runs A* over the entrances from one block to another and fills the path in.
+         * @param from block the path starts at
+         * @param target block the path ends at
+         */
+        void find(int from, int target) {
+            this.target = target;
+            if(!open(from / width, from % width) || !open(target / width, target % width))
+                return;
+            int fromK = cluster(from);
+            int targetK = cluster(target);
+            Cluster fromC = get(fromK);
+            Cluster targetC = get(targetK);
+            //the start and the target join the entrances of their own clusters
+            flood.run(fromK, from, NONE);
+            int[] fromSteps = flood.reach(fromC);
+            int direct = fromK == targetK ? flood.depth[local(target)] : NONE;
+            flood.run(targetK, target, NONE);
+            int[] targetSteps = flood.reach(targetC);
+            //enough rows of 64 nodes for the clusters worked out so far, more as the search reaches others
+            rows = (total + MASK) >>> BITS;
+            gCost = new CostTable(rows, SIZE, Double.POSITIVE_INFINITY);
+            parents = new ParentTable(rows, SIZE);
+            open = new IndexedHeap(rows, SIZE);
+            closed = new VisitedSet(rows, SIZE);
+            cells = new ParentTable(rows, SIZE);
+            cells.set(START, from);
+            cells.set(TARGET, target);
+            gCost.set(START, 0);
+            open.push(START, manhattan(from, target), manhattan(from, target));
+            while(!open.isEmpty()) {
+                if(widest < open.size())
+                    widest = open.size();
+                int node = open.poll();
+                closed.add(node);
+                expanded++;
+                if(node == TARGET) {
+                    int[] hops = parents.path(START, TARGET);
+                    for(int h = 0; h < hops.length; h++)
+                        hops[h] = cells.get(hops[h]);
+                    path = refine(hops);
+                    return;
+                }
+                int cell = cells.get(node);
+                int k = cluster(cell);
+                Cluster c = get(k);
+                if(node == START) {
+                    for(int j = 0; j < fromSteps.length; j++)
+                        relax(node, c.first + j, fromSteps[j], c.entrances[j]);
+                    relax(node, TARGET, direct, target);
+                }
+                else {
+                    int i = node - c.first;
+                    int n = c.entrances.length;
+                    for(int j = 0; j < n; j++)
+                        relax(node, c.first + j, c.steps[i*n + j], c.entrances[j]);
+                    if(k == targetK)
+                        relax(node, TARGET, targetSteps[i], target);
+                }
+                //the entrances across the border
+                int x = cell / width;
+                int y = cell % width;
+                int[] next = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+                for(int j = 0; j < 8; j += 2) {
+                    if(!open(next[j], next[j+1]))
+                        continue;
+                    int child = next[j]*width + next[j+1];
+                    int childK = cluster(child);
+                    if(childK == k)
+                        continue;
+                    Cluster other = get(childK);
+                    int entrance = other.index(child);
+                    if(entrance != NONE)
+                        relax(node, other.first + entrance, 1, child);
+                }
+            }
+        }
+
+        /**
+         * Opens a node of the entrance graph, or lowers its cost if this way to it is shorter.
+         * @param node the node being expanded
+         * @param child node it is joined to
+         * @param cost steps from the node to the child, NONE if they are not joined
+         * @param cell block of the child
+         */
+        void relax(int node, int child, int cost, int cell) {
+            if(cost == NONE || child == node)
+                return;
+            if((child >>> BITS) >= rows)
+                grow(child);
+            if(closed.contains(child))
+                return;
+            double g = gCost.get(node) + cost;
+            if(g < gCost.get(child)) {
+                gCost.set(child, g);
+                parents.set(child, node);
+                cells.set(child, cell);
+                int h = manhattan(cell, target);
+                open.push(child, g + h, h);
+            }
+        }
+
+        /**
+         * Makes room in the tables for a node of a cluster worked out after the search began.
+         * @param node the node
+         */
+        void grow(int node) {
+            rows = Math.max(rows*2, (node >>> BITS) + 1);
+            gCost.grow(rows);
+            parents.grow(rows);
+            open.grow(rows);
+            closed.grow(rows);
+            cells.grow(rows);
+        }
+
+        /**
+         * Fills in the blocks between the entrances of a path.
+         * @param hops the start, the entrances and the target, in order
+         * @return every block of the path
+         */
+        int[] refine(int[] hops) {
+            int[] path = new int[Math.max(16, hops.length)];
+            int n = 0;
+            path[n++] = hops[0];
+            for(int h = 1; h < hops.length; h++) {
+                int a = hops[h-1];
+                int b = hops[h];
+                int[] piece;
+                if(manhattan(a, b) == 1) {
+                    piece = new int[]{b};
+                }
+                else {
+                    //both ends of a hop that is not a border step are in the same cluster
+                    int k = cluster(a);
+                    flood.run(k, a, b);
+                    piece = new int[flood.depth[local(b)]];
+                    int c = local(b);
+                    for(int i = piece.length - 1; i >= 0; i--) {
+                        piece[i] = cell(k, c);
+                        c = flood.parent[c];
+                    }
+                }
+                if(n + piece.length > path.length)
+                    path = java.util.Arrays.copyOf(path, Math.max(path.length*2, n + piece.length));
+                System.arraycopy(piece, 0, path, n, piece.length);
+                n += piece.length;
+            }
+            return java.util.Arrays.copyOf(path, n);
+        }
+    }
+
+    /**
+     * Returns the entrances of a cluster, working them out if no search has yet.
+     * @param k the cluster
+     * @return the entrances of the cluster
+     */
+    Cluster get(int k) {
+        Cluster c = clusters.get(k);
+        if(c == null)
+            c = build(k);
+        return c;
+    }
+
+    /**
+     * Works out the entrances of a cluster and the steps between them. Only one thread
+     * works out clusters at a time, and a cluster another thread just finished is not done again.
+     * @param k the cluster
+     * @return the entrances of the cluster
+     */
+    synchronized Cluster build(int k) {
+        Cluster done = clusters.get(k);
+        if(done != null)
+            return done;
+        int x0 = (k / across) << BITS;
+        int y0 = (k % across) << BITS;
+        int x1 = Math.min(x0 + SIZE, length) - 1;
+        int y1 = Math.min(y0 + SIZE, width) - 1;
+        found = new int[8];
+        int count = 0;
+        //top, bottom, left and right borders, each walked from its first block
+        if(x0 > 0)
+            count = entrances(x0, y0, 0, 1, y1 - y0 + 1, -1, 0, count);
+        if(x1 < length - 1)
+            count = entrances(x1, y0, 0, 1, y1 - y0 + 1, 1, 0, count);
+        if(y0 > 0)
+            count = entrances(x0, y0, 1, 0, x1 - x0 + 1, 0, -1, count);
+        if(y1 < width - 1)
+            count = entrances(x0, y1, 1, 0, x1 - x0 + 1, 0, 1, count);
+        int[] entrances = java.util.Arrays.copyOf(found, count);
+        int[] between = new int[count*count];
+        for(int i = 0; i < count; i++) {
+            builder.run(k, entrances[i], NONE);
+            for(int j = 0; j < count; j++)
+                between[i*count + j] = builder.depth[local(entrances[j])];
+        }
+        Cluster c = new Cluster(entrances, between, total);
+        total += count;
+        clusters.set(k, c);
+        return c;
+    }
+
+    /**
+     * Finds the entrances along one border of a cluster.
+     * @param x row of the first block of the border
+     * @param y column of the first block of the border
+     * @param dx row step along the border
+     * @param dy column step along the border
+     * @param n blocks along the border
+     * @param ox row step out of the cluster
+     * @param oy column step out of the cluster
+     * @param count how many entrances were found so far
+     * @return how many entrances were found, the new ones added to found
+     */
+    int entrances(int x, int y, int dx, int dy, int n, int ox, int oy, int count) {
+        int start = NONE;
+        for(int i = 0; i <= n; i++) {
+            boolean both = i < n && open(x + i*dx, y + i*dy) && open(x + i*dx + ox, y + i*dy + oy);
+            if(both && start == NONE)
+                start = i;
+            else if(!both && start != NONE) {
+                //a stretch of open border ended
+                int end = i - 1;
+                if(end - start + 1 < LONG_ENTRANCE) {
+                    count = add((x + (start + end)/2*dx)*width + y + (start + end)/2*dy, count);
+                }
+                else {
+                    count = add((x + start*dx)*width + y + start*dy, count);
+                    count = add((x + end*dx)*width + y + end*dy, count);
+                }
+                start = NONE;
+            }
+        }
+        return count;
+    }
+
+    int add(int cell, int count) {
+        for(int i = 0; i < count; i++) {
+            //a corner block can be an entrance of two borders
+            if(found[i] == cell)
+                return count;
+        }
+        if(count == found.length)
+            found = java.util.Arrays.copyOf(found, count*2);
+        found[count] = cell;
+        return count + 1;
+    }
+
+    /**
+     * Breadth-First Search inside one cluster at a time, with the walls of the last cluster
+     * it searched. Each Route and the cluster builder have their own.
+     */
+    class Flood {
+        //walls of the cluster last searched inside, by block of the cluster
+        boolean[] walls;
+        int loaded;
+        //steps and parents of the last search, by block of the cluster
+        int[] depth;
+        int[] parent;
+        int[] queue;
+
+        Flood() {
+            walls = new boolean[SIZE*SIZE];
+            loaded = NONE;
+            depth = new int[SIZE*SIZE];
+            parent = new int[SIZE*SIZE];
+            queue = new int[SIZE*SIZE];
+        }
+
+        /**
+         * Searches inside one cluster, filling in depth and parent.
+         * @param k the cluster
+         * @param start block the search starts at
+         * @param stop block to stop at, NONE to reach the whole cluster
+         */
+        void run(int k, int start, int stop) {
+            load(k);
+            java.util.Arrays.fill(depth, NONE);
+            int last = stop == NONE ? NONE : local(stop);
+            int head = 0;
+            int tail = 0;
+            depth[local(start)] = 0;
+            queue[tail++] = local(start);
+            while(head < tail) {
+                int c = queue[head++];
+                if(c == last)
+                    return;
+                //DOWN, UP, RIGHT, LEFT, staying inside the cluster
+                if((c >>> BITS) < MASK)
+                    tail = visit(c, c + SIZE, tail);
+                if((c >>> BITS) > 0)
+                    tail = visit(c, c - SIZE, tail);
+                if((c & MASK) < MASK)
+                    tail = visit(c, c + 1, tail);
+                if((c & MASK) > 0)
+                    tail = visit(c, c - 1, tail);
+            }
+        }
+
+        int visit(int c, int child, int tail) {
+            if(depth[child] == NONE && !walls[child]) {
+                depth[child] = depth[c] + 1;
+                parent[child] = c;
+                queue[tail++] = child;
+            }
+            return tail;
+        }
+
+        /**
+         * Reads the walls of a cluster once, so the searches inside it do not go back to the grid.
+         * Blocks past the edge of the grid are walls.
+         * @param k the cluster
+         */
+        void load(int k) {
+            if(loaded == k)
+                return;
+            int x0 = (k / across) << BITS;
+            int y0 = (k % across) << BITS;
+            for(int c = 0; c < SIZE*SIZE; c++)
+                walls[c] = !open(x0 + (c >>> BITS), y0 + (c & MASK));
+            loaded = k;
+        }
+
+        /**
+         * Returns the steps the last search took to each entrance of a cluster.
+         * @param c the cluster that was searched
+         * @return steps to each entrance, NONE where it was not reached
+         */
+        int[] reach(Cluster c) {
+            int[] reached = new int[c.entrances.length];
+            for(int i = 0; i < reached.length; i++)
+                reached[i] = depth[local(c.entrances[i])];
+            return reached;
+        }
+    }
+
+    int cluster(int cell) {
+        return ((cell / width) >>> BITS)*across + ((cell % width) >>> BITS);
+    }
+
+    //place of a block within its cluster
+    int local(int cell) {
+        return (((cell / width) & MASK) << BITS) | ((cell % width) & MASK);
+    }
+
+    int cell(int k, int local) {
+        return (((k / across) << BITS) + (local >>> BITS))*width + ((k % across) << BITS) + (local & MASK);
+    }
+
+    int manhattan(int a, int b) {
+        return Math.abs(a / width - b / width) + Math.abs(a % width - b % width);
+    }
+
+    boolean open(int x, int y) {
+        return grid.inBounds(x, y) && !grid.isObstacle(x, y) && !grid.isAgent(x, y);
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Labels the connected parts of a grid, so a search can tell before it starts if the
+ * goal object can be reached from home at all. Two blocks have the same label if a path
+ * of blocks that are not obstacles joins them. Agents are not obstacles here, since the
+ * robot can still walk into them.
+ *
+ * The labels are found in two passes over the grid: the first gives each block the label
+ * of the block above or to the left and joins the two labels when they differ, the second
+ * replaces every label by the one it was joined into.
+ * @author Andrew C. Haynes
+ */
+public class Components {
+
+    int width;
+    //label of each block, 0 for obstacles
+    int[] labels;
+    //the Grid version the labels were found for
+    int version;
+
+    /**
+     * Labels the grid. Grids stored in tiles are too large to label,
+     * so every block of them is treated as connected.
+     * @param grid the grid
+     */
+    public Components(Grid grid) {
+        width = grid.width;
+        version = grid.version;
+        if((long)grid.length*grid.width > Grid.TILED_BLOCKS)
+            return;
+        labels = new int[grid.length*grid.width];
+        int[] parent = new int[64];
+        int next = 1;
+        for(int x = 0; x < grid.length; x++) {
+            for(int y = 0; y < grid.width; y++) {
+                int i = x*width + y;
+                if(grid.isObstacle(x, y))
+                    continue;
+                int up = x > 0 ? labels[i - width] : 0;
+                int left = y > 0 ? labels[i - 1] : 0;
+                if(up == 0 && left == 0) {
+                    if(next == parent.length)
+                        parent = java.util.Arrays.copyOf(parent, next*2);
+                    parent[next] = next;
+                    labels[i] = next++;
+                }
+                else if(up == 0) {
+                    labels[i] = left;
+                }
+                else if(left == 0) {
+                    labels[i] = up;
+                }
+                else {
+                    labels[i] = left;
+                    int a = root(parent, up);
+                    int b = root(parent, left);
+                    if(a != b)
+                        parent[Math.max(a, b)] = Math.min(a, b);
+                }
+            }
+        }
+        for(int i = 0; i < labels.length; i++) {
+            if(labels[i] != 0)
+                labels[i] = root(parent, labels[i]);
+        }
+    }
+
+    /**
+     * Finds the label a label was joined into.
+     */
+    static int root(int[] parent, int label) {
+        while(parent[label] != label) {
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+
+    /**
+     * Determines if a path can join two blocks.
+     * @param a block as x*width + y
+     * @param b block as x*width + y
+     * @return false if no path joins the blocks, true if one does or the grid was too large to label
+     */
+    public boolean connected(int a, int b) {
+        if(labels == null)
+            return true;
+        return labels[a] != 0 && labels[a] == labels[b];
+    }
+
+    /**
+     * Determines if a path joins a block to any block of a set.
+     * @param a block as x*width + y
+     * @param blocks the set of blocks
+     * @return true if a path joins the block to one of them
+     */
+    public boolean connected(int a, CellSet blocks) {
+        for(int i = 0; i < blocks.size(); i++) {
+            if(connected(a, blocks.get(i)))
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,162 @@
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Random restart hill climbing with many climbs at once. Every thread of a ForkJoinPool takes
+ * the next start block from a shared list and climbs from it, moving to the neighbor closest
+ * to the target until it reaches the target or is stuck. Each climb keeps its own path, so
+ * the climbs share nothing but the list of starts and the best path found.
+ *
+ * Once a climb reaches the target no new climbs are started, and the climbs still going are
+ * let finish, so the result is the shortest successful climb among the ones that ran.
+ * A climb that steps onto an agent has failed, since a robot that followed it would die.
+ * @author Andrew C. Haynes
+ */
+public class ConcurrentClimb {
+
+    Grid grid;
+    int width;
+    ForkJoinPool pool;
+    int target;
+    //exact steps to the target when the grid is small enough to keep them
+    DistanceField field;
+    //blocks the climbs start from, and the next one to be taken
+    int[] starts;
+    AtomicInteger next;
+    volatile boolean found;
+    //shortest successful climb
+    int[] best;
+    //climbs run and blocks moved to by all of them
+    AtomicInteger climbs;
+    AtomicInteger blocks;
+
+    /**
+     * Creates the search for a grid.
+     * @param grid the grid to climb
+     * @param pool the threads the climbs run on
+     */
+    public ConcurrentClimb(Grid grid, ForkJoinPool pool) {
+        this.grid = grid;
+        this.pool = pool;
+        width = grid.width;
+    }
+
+    /**
+     * Climbs from the start blocks in order, as many at a time as the pool has threads,
+     * until one of them reaches the target.
+     * @param starts blocks to climb from, as x*width + y
+     * @param target block to reach
+     * @return the blocks of the shortest successful climb, or null if every climb got stuck
+     */
+    public int[] search(int[] starts, int target) {
+        this.starts = starts;
+        this.target = target;
+        field = grid.distances(target);
+        next = new AtomicInteger();
+        found = false;
+        best = null;
+        climbs = new AtomicInteger();
+        blocks = new AtomicInteger();
+        ArrayList<Future<?>> climbers = new ArrayList<>();
+        for(int i = 0; i < pool.getParallelism(); i++)
+            climbers.add(pool.submit(this::climbStarts));
+        try {
+            for(Future<?> climber: climbers)
+                climber.get();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        catch(ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        return best;
+    }
+
+    /**
+     * Takes start blocks and climbs from them until there are none left or a climb succeeded.
+     */
+    void climbStarts() {
+        while(!found) {
+            int i = next.getAndIncrement();
+            if(i >= starts.length)
+                return;
+            climbs.incrementAndGet();
+            int[] path = climb(starts[i]);
+            if(path != null)
+                offer(path);
+        }
+    }
+
+    /**
+     * Records a successful climb if it is the shortest so far.
+     * @param path blocks of the climb
+     */
+    synchronized void offer(int[] path) {
+        if(best == null || path.length < best.length)
+            best = path;
+        found = true;
+    }
+
+    /**
+     * Climbs from one block, always to the neighbor closest to the target.
+     * @param start block to climb from
+     * @return the blocks of the climb, or null if it got stuck, stepped onto an agent or started on an obstacle
+     */
+    int[] climb(int start) {
+        int[] path = new int[16];
+        int n = 0;
+        int current = start;
+        path[n++] = current;
+        try {
+            while(true) {
+                int x = current / width;
+                int y = current % width;
+                if(grid.isObstacle(x, y) || grid.isAgent(x, y))
+                    return null;
+                if(current == target)
+                    return java.util.Arrays.copyOf(path, n);
+                int step = -1;
+                double stepEval = Double.MAX_VALUE;
+                int[] around = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+                for(int i = 0; i < 8; i += 2) {
+                    if(grid.inBounds(around[i], around[i+1]) && !grid.isObstacle(around[i], around[i+1])) {
+                        int cell = around[i]*width + around[i+1];
+                        double eval = evaluation(cell);
+                        if(Double.compare(eval, stepEval) < 0) {
+                            step = cell;
+                            stepEval = eval;
+                        }
+                    }
+                }
+                //stuck on a plateau or local minimum
+                if(step < 0 || Double.compare(stepEval, evaluation(current)) >= 0)
+                    return null;
+                current = step;
+                if(n == path.length)
+                    path = java.util.Arrays.copyOf(path, n*2);
+                path[n++] = current;
+            }
+        }
+        finally {
+            blocks.addAndGet(n - 1);
+        }
+    }
+
+    /**
+     * Distance from a block to the target, the heuristic of the hill climbing searches.
+     * @param cell block as x*width + y
+     * @return the exact steps when the grid keeps a distance field, the straight line distance otherwise
+     */
+    double evaluation(int cell) {
+        if(field != null)
+            return field.cost(cell);
+        int x = Math.abs(cell / width - target / width);
+        int y = Math.abs(cell % width - target % width);
+        return Math.sqrt((x*x)+(y*y));
+    }
+}
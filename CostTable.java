@@ -0,0 +1,70 @@
+import java.util.Arrays;
+/**
+ * Per-block costs for a search, stored in 64x64 tiles that are only allocated once
+ * a block in them is given a cost. A search on a very large grid then only pays for
+ * the part of the grid it explores.
+ * @author Andrew C. Haynes
+ */
+public class CostTable {
+
+    int width;
+    int tilesAcross;
+    double initial;
+    double[][] tiles;
+
+    /**
+     * Creates a table where every block has the same starting cost.
+     * @param len length of the grid
+     * @param wid width of the grid
+     * @param initial cost of a block that was never set
+     */
+    public CostTable(int len, int wid, double initial) {
+        width = wid;
+        tilesAcross = (wid + TiledGrid.TILE_MASK) >>> TiledGrid.TILE_BITS;
+        int tilesDown = (len + TiledGrid.TILE_MASK) >>> TiledGrid.TILE_BITS;
+        this.initial = initial;
+        tiles = new double[tilesDown*tilesAcross][];
+    }
+
+    /**
+     * Makes room for more rows of blocks, keeping the costs already in the table.
+     * @param len new length of the grid, at least the old one
+     */
+    public void grow(int len) {
+        int tilesDown = (len + TiledGrid.TILE_MASK) >>> TiledGrid.TILE_BITS;
+        if(tilesDown*tilesAcross > tiles.length)
+            tiles = Arrays.copyOf(tiles, tilesDown*tilesAcross);
+    }
+
+    /**
+     * Returns the cost of a block.
+     * @param cell block as x*width + y
+     * @return the cost of the block
+     */
+    public double get(int cell) {
+        int x = cell / width;
+        int y = cell % width;
+        double[] tile = tiles[(x >>> TiledGrid.TILE_BITS)*tilesAcross + (y >>> TiledGrid.TILE_BITS)];
+        if(tile == null)
+            return initial;
+        return tile[((x & TiledGrid.TILE_MASK) << TiledGrid.TILE_BITS) | (y & TiledGrid.TILE_MASK)];
+    }
+
+    /**
+     * Sets the cost of a block.
+     * @param cell block as x*width + y
+     * @param cost the cost of the block
+     */
+    public void set(int cell, double cost) {
+        int x = cell / width;
+        int y = cell % width;
+        int t = (x >>> TiledGrid.TILE_BITS)*tilesAcross + (y >>> TiledGrid.TILE_BITS);
+        double[] tile = tiles[t];
+        if(tile == null) {
+            tile = new double[TiledGrid.TILE_SIZE*TiledGrid.TILE_SIZE];
+            Arrays.fill(tile, initial);
+            tiles[t] = tile;
+        }
+        tile[((x & TiledGrid.TILE_MASK) << TiledGrid.TILE_BITS) | (y & TiledGrid.TILE_MASK)] = cost;
+    }
+}
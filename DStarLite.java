@@ -0,0 +1,268 @@
+/**
+ * D* Lite keeps its search between moves of the robot and repairs it when blocks change.
+ * The search runs backwards, from the target out to the robot, so the cost of every block it
+ * has settled is the cost of the rest of the way to the target. When the robot moves, those
+ * costs stay right. When obstacles or agents appear or disappear, only the blocks whose cost
+ * went through a changed block are searched again, instead of the whole search starting over.
+ *
+ * Each block keeps g, its settled cost to the target, and rhs, the cost one step from it
+ * through its best neighbor. A block whose two costs differ is in the queue, ordered by its
+ * key: the lower of the two plus the Manhattan distance to the robot, then the lower of the two.
+ * Because the robot moves but the keys already in the queue do not, km adds up how far the robot
+ * has moved since the search started, so new keys stay comparable with the older ones.
+ *
+ * Changes are read from Grid.changed, so the plan only has to be told to update. Obstacles and
+ * agents are both walls, and entering a block costs its terrain cost.
+ * @author Andrew C. Haynes
+ */
+public class DStarLite {
+
+    public static final int NONE = -1;
+
+    Grid grid;
+    int width;
+    //block the robot is on, and the one it was on when km was last raised
+    int start;
+    int last;
+    int target;
+    double km;
+    CostTable g;
+    CostTable rhs;
+    IndexedHeap open;
+    //the Grid version the plan is up to date with
+    int version;
+    //blocks expanded and largest queue since the plan was made
+    int expanded;
+    int widest;
+
+    /**
+     * Creates the plan for a robot on its way to a target. Nothing is searched until plan is called.
+     * @param grid the grid to search
+     * @param start block the robot is on, as x*width + y
+     * @param target block the robot is going to
+     */
+    public DStarLite(Grid grid, int start, int target) {
+        this.grid = grid;
+        width = grid.width;
+        this.start = start;
+        this.target = target;
+        expanded = 0;
+        widest = 0;
+        restart();
+    }
+
+    /**
+     * Forgets the search and starts a new one from the target.
+     */
+    void restart() {
+        last = start;
+        km = 0;
+        g = new CostTable(grid.length, width, Double.POSITIVE_INFINITY);
+        rhs = new CostTable(grid.length, width, Double.POSITIVE_INFINITY);
+        open = new IndexedHeap(grid.length, width);
+        version = grid.version;
+        rhs.set(target, 0);
+        open.push(target, heuristic(target), 0);
+    }
+
+    /**
+     * Brings the search up to date with the blocks that changed since it was last updated.
+     * If more blocks changed than the grid remembers, the search starts over.
+     * @return true if anything changed
+     */
+    public boolean update() {
+        if(version == grid.version)
+            return false;
+        //the keys already queued were found with the robot further back
+        km += heuristic(last);
+        last = start;
+        for(int v = version + 1; v <= grid.version; v++) {
+            int cell = grid.changed(v);
+            if(cell < 0) {
+                restart();
+                return true;
+            }
+            //entering and leaving the block both changed
+            int x = cell / width;
+            int y = cell % width;
+            updateCost(cell);
+            int[] next = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+            for(int i = 0; i < 8; i += 2) {
+                if(grid.inBounds(next[i], next[i+1]))
+                    updateCost(next[i]*width + next[i+1]);
+            }
+        }
+        version = grid.version;
+        return true;
+    }
+
+    /**
+     * Searches until the robot's block is settled.
+     * @return true if there is a path from the robot to the target
+     */
+    public boolean plan() {
+        while(!open.isEmpty() && (before(open.minCost(), open.minHeuristic(), key(start), low(start))
+                || rhs.get(start) > g.get(start))) {
+            if(widest < open.size())
+                widest = open.size();
+            int cell = open.peek();
+            double oldKey = open.minCost();
+            double oldLow = open.minHeuristic();
+            double low = low(cell);
+            if(before(oldKey, oldLow, key(cell), low)) {
+                //queued before the robot moved on
+                open.update(cell, key(cell), low);
+            }
+            else if(g.get(cell) > rhs.get(cell)) {
+                //the block got cheaper, so settle it and offer it to its neighbors
+                expanded++;
+                g.set(cell, rhs.get(cell));
+                open.remove(cell);
+                int x = cell / width;
+                int y = cell % width;
+                int[] next = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+                for(int i = 0; i < 8; i += 2) {
+                    if(!grid.inBounds(next[i], next[i+1]))
+                        continue;
+                    int neighbor = next[i]*width + next[i+1];
+                    if(neighbor != target && step(neighbor, cell) + g.get(cell) < rhs.get(neighbor)) {
+                        rhs.set(neighbor, step(neighbor, cell) + g.get(cell));
+                        queue(neighbor);
+                    }
+                }
+            }
+            else {
+                //the block got dearer, so it and the blocks that went through it look again
+                expanded++;
+                g.set(cell, Double.POSITIVE_INFINITY);
+                updateCost(cell);
+                int x = cell / width;
+                int y = cell % width;
+                int[] next = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+                for(int i = 0; i < 8; i += 2) {
+                    if(grid.inBounds(next[i], next[i+1]))
+                        updateCost(next[i]*width + next[i+1]);
+                }
+            }
+        }
+        return rhs.get(start) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the block the robot should step onto next.
+     * @return the neighbor on the cheapest way to the target, or NONE if there is no way
+     */
+    public int next() {
+        return next(start);
+    }
+
+    /**
+     * Returns the neighbor of a block on the cheapest way from it to the target.
+     * @param cell block as x*width + y
+     * @return the neighbor, or NONE if there is no way
+     */
+    int next(int cell) {
+        int best = NONE;
+        double bestCost = Double.POSITIVE_INFINITY;
+        int x = cell / width;
+        int y = cell % width;
+        int[] next = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+        for(int i = 0; i < 8; i += 2) {
+            if(!grid.inBounds(next[i], next[i+1]))
+                continue;
+            int neighbor = next[i]*width + next[i+1];
+            double cost = step(cell, neighbor) + g.get(neighbor);
+            if(cost < bestCost) {
+                best = neighbor;
+                bestCost = cost;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Tells the plan the robot has moved.
+     * @param cell block the robot is now on
+     */
+    public void moveTo(int cell) {
+        start = cell;
+    }
+
+    /**
+     * Returns the cost of the rest of the way to the target.
+     * @return the cost from the robot's block, infinity if there is no path
+     */
+    public double cost() {
+        return rhs.get(start);
+    }
+
+    /**
+     * Works out the rhs of a block again from its neighbors and requeues it if needed.
+     * @param cell block as x*width + y
+     */
+    void updateCost(int cell) {
+        if(cell != target) {
+            double best = Double.POSITIVE_INFINITY;
+            int x = cell / width;
+            int y = cell % width;
+            int[] next = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+            for(int i = 0; i < 8; i += 2) {
+                if(grid.inBounds(next[i], next[i+1])) {
+                    int neighbor = next[i]*width + next[i+1];
+                    best = Math.min(best, step(cell, neighbor) + g.get(neighbor));
+                }
+            }
+            rhs.set(cell, best);
+        }
+        queue(cell);
+    }
+
+    /**
+     * Puts a block in the queue with its current key if its costs differ, and takes it out if not.
+     * @param cell block as x*width + y
+     */
+    void queue(int cell) {
+        if(g.get(cell) != rhs.get(cell))
+            open.update(cell, key(cell), low(cell));
+        else
+            open.remove(cell);
+    }
+
+    /**
+     * Cost of stepping from one block onto a neighbor.
+     * @param from block as x*width + y
+     * @param to a neighbor of the block
+     * @return the terrain cost of the neighbor, or infinity if either block is a wall
+     */
+    double step(int from, int to) {
+        if(!open(from) || !open(to))
+            return Double.POSITIVE_INFINITY;
+        return grid.getCost(to / width, to % width);
+    }
+
+    boolean open(int cell) {
+        int x = cell / width;
+        int y = cell % width;
+        return !grid.isObstacle(x, y) && !grid.isAgent(x, y);
+    }
+
+    //first part of the key of a block
+    double key(int cell) {
+        return low(cell) + heuristic(cell) + km;
+    }
+
+    //second part of the key of a block
+    double low(int cell) {
+        return Math.min(g.get(cell), rhs.get(cell));
+    }
+
+    //steps between a block and the robot, no more than the cost of any path between them
+    double heuristic(int cell) {
+        return Math.abs(cell / width - start / width) + Math.abs(cell % width - start % width);
+    }
+
+    //true if the first key comes before the second
+    static boolean before(double key1, double low1, double key2, double low2) {
+        return key1 < key2 || (key1 == key2 && low1 < low2);
+    }
+}
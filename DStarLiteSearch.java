@@ -0,0 +1,28 @@
+/**
+ * D* Lite Search plans backwards from the goal object and walks the robot one block at a
+ * time along the plan. Before every step the plan is repaired for any obstacles or agents
+ * that were placed or removed since the last one, so the robot can keep going on a grid that
+ * changes under it without searching from scratch. Once the object is picked up, a new plan
+ * is made towards home.
+ * Agents are walls to the plan, and every step counts as one.
+ * (Note: There are instances where no paths exist.)
+ * @author Andrew C. Haynes
+ */
+public class DStarLiteSearch extends AnimatedSearch {
+
+    /**
+     * Instantiates the D* Lite Search by connecting the robot agent to the
+     * search.
+     * @param agent Robot agent committing the search
+     */
+    public DStarLiteSearch(Agent agent) {
+        super(agent, "D* Lite Search");
+    }
+
+    /**
+     * Performs a D* Lite Search from home to the object and back.
+     */
+    public void dStarSearch() {
+        this.start();
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * The exact number of steps from every block of a grid to one target block, found with
+ * one Breadth-First Search out from the target. Obstacles and agents are not walked
+ * through, so following the field downhill takes the robot to the target on a shortest
+ * path that stays clear of the agents. Searches use it as a perfect heuristic.
+ *
+ * Grid.distances keeps the fields it has found until the obstacles or agents change, and drops
+ * the least recently used ones once they take more than Grid.DISTANCE_BYTES.
+ * @author Andrew C. Haynes
+ */
+public class DistanceField {
+
+    public static final int UNREACHABLE = -1;
+
+    int width;
+    //the block the steps are counted to
+    public int target;
+    //steps to the target from each block, UNREACHABLE if there is no path
+    int[] steps;
+    //the Grid version the field was found for
+    int version;
+    //when the field was last asked for, by the clock of its grid
+    volatile long used;
+
+    /**
+     * Finds the steps from every block to the target.
+     * @param grid the grid
+     * @param target block as x*width + y
+     */
+    public DistanceField(Grid grid, int target) {
+        width = grid.width;
+        this.target = target;
+        version = grid.version;
+        steps = new int[grid.length*grid.width];
+        java.util.Arrays.fill(steps, UNREACHABLE);
+        //only the blocks around the edge of the search are queued at once, so the queue is a
+        //ring that starts small and doubles when it is full
+        int[] queue = new int[1024];
+        int head = 0;
+        int count = 0;
+        steps[target] = 0;
+        queue[count++] = target;
+        while(count > 0) {
+            int cell = queue[head];
+            head = (head + 1) & (queue.length - 1);
+            count--;
+            int x = cell / width;
+            int y = cell % width;
+            int[] next = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+            for(int i = 0; i < 8; i += 2) {
+                if(grid.inBounds(next[i], next[i+1]) && !grid.isObstacle(next[i], next[i+1])
+                        && !grid.isAgent(next[i], next[i+1])) {
+                    int child = next[i]*width + next[i+1];
+                    if(steps[child] == UNREACHABLE) {
+                        steps[child] = steps[cell] + 1;
+                        if(count == queue.length) {
+                            int[] bigger = new int[count*2];
+                            System.arraycopy(queue, head, bigger, 0, count - head);
+                            System.arraycopy(queue, 0, bigger, count - head, head);
+                            queue = bigger;
+                            head = 0;
+                        }
+                        queue[(head + count) & (queue.length - 1)] = child;
+                        count++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the memory the field takes.
+     * @return bytes of the steps of every block
+     */
+    public long bytes() {
+        return 4L*steps.length;
+    }
+
+    /**
+     * Returns the steps from a block to the target.
+     * @param cell block as x*width + y
+     * @return the number of steps, or UNREACHABLE
+     */
+    public int get(int cell) {
+        return steps[cell];
+    }
+
+    /**
+     * Returns the steps from a block to the target as a heuristic cost.
+     * @param cell block as x*width + y
+     * @return the number of steps, or infinity if there is no path
+     */
+    public double cost(int cell) {
+        int s = steps[cell];
+        return s == UNREACHABLE ? Double.POSITIVE_INFINITY : s;
+    }
+}
@@ -2,7 +2,6 @@ import java.awt.*;
 import java.awt.event.*;
 import java.io.*;
 import java.io.File;
-import java.util.ArrayList;
 import java.util.Random;
 import javax.swing.*;
 /**
@@ -17,6 +16,10 @@ public class Environment extends JPanel {
     
     //Grid for Board of Environment
     public Block[][] grid;
+    //Headless model of the grid, the Blocks are a view of it
+    public Grid model;
+    //Grids with more blocks than this are searched headless and are not shown block by block
+    public static final int MAX_VIEW_BLOCKS = 250*250;
     //Length of Grid
     public int length;
     //Width of Grid
@@ -65,12 +68,17 @@ public class Environment extends JPanel {
                 repaint();
                 board.revalidate();
                 board.repaint();
-                if(action == 1) {
+                if(action == 1 && grid != null) {
                     //start a new agent here since a new board exists!
-                    agent = new Agent(grid, length, width);
+                    agent = new Agent(model, grid);
                     agent.startPosition();
                     randomObjectGoalBlock(); //creates a random location to have the object
                 }
+                else if(action == 1) {
+                    //too large to show, the search engine picks the entry/exit block
+                    agent = null;
+                    randomObjectGoalBlock();
+                }
                 
             }
         });
@@ -80,7 +88,10 @@ public class Environment extends JPanel {
                 if(action == 1) {
                     //let parameter determine which search algorithm to initiate
                     Object test = searchOptions();
-                    agent.startSearch(test);
+                    if(test != null && agent != null)
+                        agent.startSearch(test);
+                    else if(test != null)
+                        headlessSearch(test);
                     action = 0;
                     //clearSearchedGrid(); //fix this nice feature later
                 }
@@ -104,23 +115,24 @@ public class Environment extends JPanel {
                 JLabel ageBlock = new JLabel("Agent: ");
                 JLabel rDeath = new JLabel("Robot Death: ");
                 JLabel gBlock = new JLabel("Contains Goal Object: ");
-                //Column 2
-                Block startBlock = new Block(0,0);
+                //Column 2, each block of the key is a block of one small grid
+                Grid keyModel = new Grid(1, 8);
+                Block startBlock = new Block(keyModel, 0, 0);
                 startBlock.setHome();
-                Block defaultBlock = new Block(0,0);
-                Block beforeBlock = new Block(0,0);
+                Block defaultBlock = new Block(keyModel, 0, 1);
+                Block beforeBlock = new Block(keyModel, 0, 2);
                 beforeBlock.setTraversed();
-                Block afterBlock = new Block(0,0);
+                Block afterBlock = new Block(keyModel, 0, 3);
                 afterBlock.setHomeTraversed();
-                Block baBlock = new Block(0,0);
+                Block baBlock = new Block(keyModel, 0, 4);
                 baBlock.setTraversed();
                 baBlock.setHomeTraversed();
-                Block agentBlock = new Block(0,0);
+                Block agentBlock = new Block(keyModel, 0, 5);
                 agentBlock.setAgent();
-                Block robotDBlock = new Block(0,0);
+                Block robotDBlock = new Block(keyModel, 0, 6);
                 robotDBlock.setAgent();
                 robotDBlock.setRobotDeathBlock();
-                Block goalBlock = new Block(0,0);
+                Block goalBlock = new Block(keyModel, 0, 7);
                 goalBlock.setBlockObjectGoal();
                 //It's horizontal, left-to-right for grid layout orientation
                 helpPanel.add(key);
@@ -167,11 +179,15 @@ public class Environment extends JPanel {
                 repaint();
                 int state = initGridFromLoad();
                 repaint();
-                if(state == 1) {
-                    agent = new Agent(grid, length, width); 
+                if(state == 1 && grid != null) {
+                    agent = new Agent(model, grid); 
                     agent.setStartPosition();
                     action = 1;
                 }
+                else if(state == 1) {
+                    agent = null;
+                    action = 1;
+                }
             }
         });
         
@@ -269,59 +285,52 @@ public class Environment extends JPanel {
         else if((gObstacle < 0 || gObstacle > 20) || (gAgent < 0 || gAgent > 10)) { 
             JOptionPane.showMessageDialog(null, "Please insert a value.\nObstacle: 0 to 20\nAgent: 0 to 10");
         }
+        //blocks are numbered in an int
+        else if((long)length*width > Grid.MAX_BLOCKS) {
+            JOptionPane.showMessageDialog(null, "Please insert a value.\nLength x Width: at most " + Grid.MAX_BLOCKS);
+        }
         else {
             /**
              * Create the grid and then create obs % and agent % of blocks in the grid!
              */
-            grid = new Block[length][width]; 
+            model = Grid.create(length, width);
             double obsChance = (double)gObstacle/100;
             double ageChance = (double)gAgent/100;
-            int numObs = (int)Math.floor((length*width)*obsChance);
-            int numAge = (int)Math.floor((length*width)*ageChance);
-            //creates all of the blocks in the grid and then adds them to the board
-            board.setLayout(new GridLayout(length, width));
-            for(int i = 0; i < length; i++) {
-                for(int j = 0; j < width; j++) {
-                    grid[i][j] = new Block(i,j);
-                    board.add(grid[i][j]);
-                }
-            }
+            long numObs = (long)Math.floor((double)length*width*obsChance);
+            long numAge = (long)Math.floor((double)length*width*ageChance);
+            Random rand = new Random();
             //creates the number of obstacles in accordance to obstacle per cent chance
-            for(int i = 0; i < numObs; i++ ) {
+            for(long i = 0; i < numObs; i++ ) {
                 boolean done = false;
                 while(!done) {    
-                    Random rand1 = new Random();
-                    Random rand2 = new Random();
-                    int x = rand1.nextInt(length);
-                    int y = rand2.nextInt(width);
-                    if(grid[x][y].isBlockAgent() == 1 || grid[x][y].isBlockObstacle() == 1) {
+                    int x = rand.nextInt(length);
+                    int y = rand.nextInt(width);
+                    if(model.isAgent(x, y) || model.isObstacle(x, y)) {
                         //do nothing
                     }
                     else {
-                        grid[x][y].setObstacle();
+                        model.setObstacle(x, y);
                         done = true;
                     }
                 }
             }
             //creates the number of enemy agents in accordance to enemy agent per cent chance
-            for(int i = 0; i < numAge; i++ ) {
+            for(long i = 0; i < numAge; i++ ) {
                 boolean done = false;
                 while(!done) {    
-                    Random rand1 = new Random();
-                    Random rand2 = new Random();
-                    int x = rand1.nextInt(length);
-                    int y = rand2.nextInt(width);
-                    if(grid[x][y].isBlockAgent() == 1 || grid[x][y].isBlockObstacle() == 1) {
+                    int x = rand.nextInt(length);
+                    int y = rand.nextInt(width);
+                    if(model.isAgent(x, y) || model.isObstacle(x, y)) {
                         //do nothing
                     }
                     else {
-                        grid[x][y].setAgent();
+                        model.setAgent(x, y);
                         done = true;
                     }
                 }
             }
-            //validates and repaints the board
-            board.validate();
+            //creates all of the blocks in the grid and then adds them to the board
+            initializeView();
             returnValue = 1;
         }
         //if board was succesfully created, returns 1
@@ -333,15 +342,14 @@ public class Environment extends JPanel {
      * a grid onto the GUI for searching purposes. 
      * If the user does not select a file, or a file that does not follow the 
      * correct format, the user will be notified of the action and nothing happens.
+     * Grid files converted with MappedGrid are mapped into memory instead of being read.
      * @return 
      */
     public int initGridFromLoad() {
         
         File loadedGrid = null;
         int yes = 0;
-        int start = 0;
         int status = 0;
-        ArrayList<String> gridList = new ArrayList<String>();
         JFileChooser choose = new JFileChooser(System.getProperty("user.dir"));
         int returnVal = choose.showOpenDialog(null);
         if(returnVal == JFileChooser.APPROVE_OPTION) {
@@ -352,62 +360,22 @@ public class Environment extends JPanel {
             JOptionPane.showMessageDialog(null, "No file selected.");
         if(yes == 1) {
             try {
-                BufferedReader reader = new BufferedReader(new FileReader(loadedGrid));
-                String line = "";
-                while ((line = reader.readLine()) != null) {
-                    gridList.add(line);
-                }
-                reader.close();
-            } 
-            catch (IOException x) {
-                System.err.println(x);
-            }
-            //Check if loaded file follows grid list file format
-            if(gridList.get(0).equals("BEGIN") && gridList.get(gridList.size()-1).equals("END")){
-                int counter = 3;
-                length = Integer.parseInt(gridList.get(1));
-                width = Integer.parseInt(gridList.get(2));
-                grid = new Block[length][width]; 
-                //set board function here
-                board.setLayout(new GridLayout(length,width));
-                for(int i = 0; i < length; i++) {
-                    for(int j = 0; j < width; j++) {
-                        grid[i][j] = new Block(i, j); 
-                        // 0|1|2|3|4 ::= 0 -> obstacle, 1 -> agent, 2 -> goal, 3-> home,  4-> free
-                        if(Integer.parseInt(gridList.get(counter)) == 0) {
-                            grid[i][j].obstacle = 1;
-                            counter++;
-                        }
-                        else if(Integer.parseInt(gridList.get(counter)) == 1) {
-                            grid[i][j].agent = 1;
-                            counter++;
-                        }
-                        else if(Integer.parseInt(gridList.get(counter)) == 2) {
-                            grid[i][j].setBlockObjectGoal();
-                            counter++;
-                        }
-                        else if(Integer.parseInt(gridList.get(counter)) == 3) {
-                            grid[i][j].home = 1;
-                            counter++;
-                        }
-                        else if(Integer.parseInt(gridList.get(counter)) == 4) {
-                            //do nothing
-                            counter++;
-                        }
-                        else {
-                            //it won't end up here. Hopefully. I doubt it. Too many error checks to stop program reaching here
-                        }
-                        //add the new block!
-                        board.add(grid[i][j]);
-                    }
-                }
-                board.validate();
+                //Check if loaded file follows grid list file format
+                model = Grid.load(loadedGrid);
+                length = model.length;
+                width = model.width;
+                //creates all of the blocks in the grid and then adds them to the board
+                initializeView();
                 status = 1;
             }
             //File does not comply to grid file format, exit out
-            else {
+            catch (IOException x) {
                 JOptionPane.showMessageDialog(null, "This file does not comply to the grid file format."); 
             }
+            //Grid has more blocks than can be numbered, exit out
+            catch (IllegalArgumentException x) {
+                JOptionPane.showMessageDialog(null, "This grid has more than " + Grid.MAX_BLOCKS + " blocks.");
+            }
         }
         return status;
     }
@@ -421,6 +389,45 @@ public class Environment extends JPanel {
             board.removeAll();
         }
     }
+    
+    /**
+     * Creates the Blocks that show the grid model on the board. 
+     * Grids that are too large to show are only kept in the model.
+     */
+    public void initializeView() {
+        if((long)length*width > MAX_VIEW_BLOCKS) {
+            grid = null;
+            board.setLayout(new BorderLayout());
+            board.add(new JLabel("<html>" + length + " x " + width + " grid is too large to show.<br>"
+                    + "Searches run without animation.</html>"), BorderLayout.CENTER);
+        }
+        else {
+            grid = new Block[length][width]; 
+            board.setLayout(new GridLayout(length, width));
+            for(int i = 0; i < length; i++) {
+                for(int j = 0; j < width; j++) {
+                    grid[i][j] = new Block(model, i, j);
+                    board.add(grid[i][j]);
+                }
+            }
+        }
+        //validates and repaints the board
+        board.validate();
+    }
+    
+    /**
+     * Runs a search with the headless search engine and reports the results 
+     * once it is done. Used for grids that are too large to show.
+     * @param searchType the search selected by the user
+     */
+    public void headlessSearch(final Object searchType) {
+        new Thread() {
+            public void run() {
+                SearchResult result = new SearchEngine(model).search(searchType);
+                JOptionPane.showMessageDialog(null, result.report());
+            }
+        }.start();
+    }
 
     /**
      * Selects a random block on the grid to be the goal block that has the object.
@@ -433,8 +440,10 @@ public class Environment extends JPanel {
             Random rand2 = new Random();
             int random1 = rand1.nextInt(((length))+0); //random1 is associated with length
             int random2 = rand2.nextInt(((width))+0); //random2 is associated with width
-            if(grid[random1][random2].isBlockFree() == 1) {
-                grid[random1][random2].setBlockObjectGoal();
+            if(model.isFree(random1, random2)) {
+                model.setGoal(random1, random2);
+                if(grid != null)
+                    grid[random1][random2].repaint();
                 done = true;
             }
         }
@@ -446,15 +455,8 @@ public class Environment extends JPanel {
      * @return 
      */
     public Object searchOptions(){
-        String[] options = new String[]{"Random Search", 
-            "Breadth-First Search [Tree Based]",
-            "Breadth-First Search [Graph Based]",
-            "Depth-First Search [Tree Based]",
-            "Depth-First Search [Graph Based]",
-            "Hill-Climbing Search", 
-            "Random Restart Hill-Climbing Search",
-            "Iterative Deepening Search", 
-            "A* Search"};
+        //same options as the headless search engine
+        String[] options = SearchEngine.SEARCH_TYPES;
         Object selectedSearch = JOptionPane.showInputDialog(null, "Select Search Algorithm", null,
                 JOptionPane.INFORMATION_MESSAGE, 
                 null, options, null);
@@ -475,24 +477,7 @@ public class Environment extends JPanel {
             File newGrid = new File(save.getSelectedFile().getName());
             try {
                 PrintWriter sGrid = new PrintWriter(newGrid, "UTF-8");
-                sGrid.println("BEGIN");
-                sGrid.println(length);
-                sGrid.println(width);
-                for(int i = 0; i < length; i++){
-                    for(int j = 0; j < width; j++) {
-                        if(grid[i][j].isBlockObstacle() == 1)
-                            sGrid.println(0);
-                        else if(grid[i][j].isBlockAgent() == 1)
-                            sGrid.println(1);
-                        else if(grid[i][j].isBlockObjectGoal() == 1)
-                            sGrid.println(2);
-                        else if(grid[i][j].home == 1)
-                            sGrid.println(3);
-                        else if(grid[i][j].isBlockFree() == 1)
-                            sGrid.println(4);
-                    }
-                }
-                sGrid.println("END");
+                model.save(sGrid);
                 sGrid.close();
             }
             catch (Exception e) {
@@ -508,13 +493,6 @@ public class Environment extends JPanel {
      * Clears the searched grid for future grid uses. 
      */
     public void clearSearchedGrid() {
-        for(int i = 0; i < agent.length; i++) {
-            for(int j = 0; j < agent.width; j++) {
-                if(agent.board[i][j].isBlockTraversed() == 1 || agent.board[i][j].isBlockHomeTraversed() == 1) {
-                    agent.board[i][j].traversed = 0;
-                    agent.board[i][j].homeTraversed = 0;
-                }
-            }
-        }
+        model.clearTraversed();
     }
 }
@@ -0,0 +1,627 @@
+import java.io.*;
+/**
+ * A headless model of the search grid. It holds the same cell states that the
+ * Block panels show (obstacle, agent, goal, home, traversed) without any Swing
+ * components, so searches can be run against it on a server or in a batch job.
+ *
+ * Every block is packed into a single byte of bit flags, so a grid costs one byte
+ * per block on the heap. Search costs are kept by the searches in their own arrays.
+ * @author Andrew C. Haynes
+ */
+public class Grid {
+
+    // 0|1|2|3|4 ::= 0 -> obstacle, 1 -> agent, 2 -> goal, 3-> home,  4-> free
+    public static final int OBSTACLE = 0;
+    public static final int AGENT = 1;
+    public static final int GOAL = 2;
+    public static final int HOME = 3;
+    public static final int FREE = 4;
+
+    //Bit flags of a block
+    static final int OBSTACLE_BIT = 1;
+    static final int AGENT_BIT = 2;
+    static final int GOAL_BIT = 4;
+    static final int HOME_BIT = 8;
+    //Robot agent has touched this block before picking up object
+    static final int TRAVERSED_BIT = 16;
+    //Robot agent has touched this block after picking up the object
+    static final int HOME_TRAVERSED_BIT = 32;
+    //Robot agent died at this block
+    static final int DIED_BIT = 64;
+    //Flags that make up the terrain of the block, as opposed to what happened during a search
+    static final int TERRAIN_BITS = OBSTACLE_BIT | AGENT_BIT | GOAL_BIT | HOME_BIT;
+
+    //Length of Grid
+    public int length;
+    //Width of Grid
+    public int width;
+    //One byte of flags per block, row by row
+    byte[] cells;
+    //Grids with more blocks than this are stored in tiles
+    public static final int TILED_BLOCKS = 4096*4096;
+    //Blocks are numbered x*width + y in an int, so no grid can have more blocks than this
+    public static final int MAX_BLOCKS = Integer.MAX_VALUE;
+    //One bit per row that has had a block traversed or died on since the last clear
+    long[] searchedRows;
+    //Home, goal, agent and entry blocks, built the first time they are needed
+    Landmarks landmarks;
+    //true while every block is known to be free, so the landmarks can be built without a scan
+    boolean blank;
+    //Counts the obstacles and agents placed or removed and the terrain costs changed, so anything worked out from them can tell it is out of date
+    public int version;
+    //Block of each of the last CHANGE_LOG changes to the obstacles, agents and costs, by the version it made
+    int[] changes;
+    static final int CHANGE_LOG = 1024;
+    //Connected parts of the grid, found again once the obstacles change
+    Components components;
+    //Entrances of the 64x64 clusters for hierarchical searches, dropped once the obstacles or agents change
+    ClusterGraph clusters;
+    //Distance fields by grid version and target block, shared by the searches running on the grid
+    final java.util.concurrent.ConcurrentHashMap<Long, DistanceField> distances = new java.util.concurrent.ConcurrentHashMap<>();
+    //most bytes of distance fields kept at once, the newest field is kept whatever its size
+    static final long DISTANCE_BYTES = 128L << 20;
+    //counts the fields asked for, so the least recently used one can be dropped
+    final java.util.concurrent.atomic.AtomicLong distanceClock = new java.util.concurrent.atomic.AtomicLong();
+    //Lifelong planners by start and target block, repaired rather than dropped when the grid changes
+    final java.util.concurrent.ConcurrentHashMap<Long, LPAStar> planners = new java.util.concurrent.ConcurrentHashMap<>();
+    //most lifelong planners kept at once
+    static final int MAX_PLANNERS = 8;
+    //Cost of entering each block minus one, kept in tiles once a block costs more than one step
+    TiledGrid costs;
+    //Highest cost of entering a block
+    public int maxCost = 1;
+    public static final int MAX_COST = 256;
+
+    /**
+     * Creates a grid where every block is free.
+     * @param len length of the grid
+     * @param wid width of the grid
+     */
+    public Grid(int len, int wid) {
+        this(len, wid, new byte[blocks(len, wid)]);
+        blank = true;
+    }
+
+    /**
+     * Creates a grid where every block is free, stored in tiles if it is very large.
+     * @param len length of the grid
+     * @param wid width of the grid
+     * @return a Grid, or a TiledGrid for grids larger than TILED_BLOCKS
+     * @throws IllegalArgumentException if the grid has more than MAX_BLOCKS blocks
+     */
+    public static Grid create(int len, int wid) {
+        if((long)len*wid > TILED_BLOCKS)
+            return new TiledGrid(len, wid);
+        return new Grid(len, wid);
+    }
+
+    /**
+     * Creates a grid on top of the given storage. Grids that store their blocks
+     * some other way pass null and override flags and setFlags.
+     * @param len length of the grid
+     * @param wid width of the grid
+     * @param cells one byte of flags per block, row by row
+     */
+    Grid(int len, int wid, byte[] cells) {
+        blocks(len, wid);
+        length = len;
+        width = wid;
+        this.cells = cells;
+    }
+
+    /**
+     * Counts the blocks of a grid, making sure each of them can be numbered x*width + y.
+     * @param len length of the grid
+     * @param wid width of the grid
+     * @return the number of blocks
+     * @throws IllegalArgumentException if the grid has more than MAX_BLOCKS blocks
+     */
+    static int blocks(int len, int wid) {
+        if(len < 0 || wid < 0 || (long)len*wid > MAX_BLOCKS)
+            throw new IllegalArgumentException("A grid can have at most " + MAX_BLOCKS + " blocks: " + len + "x" + wid);
+        return len*wid;
+    }
+
+    /**
+     * Returns the flags of a block.
+     * @param x row of the block
+     * @param y column of the block
+     * @return the bit flags of the block
+     */
+    int flags(int x, int y) {
+        return cells[x*width + y];
+    }
+
+    /**
+     * Sets the flags of a block.
+     * @param x row of the block
+     * @param y column of the block
+     * @param flags the bit flags of the block
+     */
+    void setFlags(int x, int y, int flags) {
+        cells[x*width + y] = (byte)flags;
+    }
+
+    /**
+     * Returns the cell code of a block, the same code the grid file format uses.
+     * @param x row of the block
+     * @param y column of the block
+     * @return 0 -> obstacle, 1 -> agent, 2 -> goal, 3-> home,  4-> free
+     */
+    public int getCell(int x, int y) {
+        int flags = flags(x, y);
+        if((flags & OBSTACLE_BIT) != 0)
+            return OBSTACLE;
+        else if((flags & AGENT_BIT) != 0)
+            return AGENT;
+        else if((flags & GOAL_BIT) != 0)
+            return GOAL;
+        else if((flags & HOME_BIT) != 0)
+            return HOME;
+        else
+            return FREE;
+    }
+
+    /**
+     * Sets the cell code of a block. What happened to the block during a search is kept.
+     * @param x row of the block
+     * @param y column of the block
+     * @param code 0 -> obstacle, 1 -> agent, 2 -> goal, 3-> home,  4-> free
+     */
+    public void setCell(int x, int y, int code) {
+        int terrain = 0;
+        if(code == OBSTACLE)
+            terrain = OBSTACLE_BIT;
+        else if(code == AGENT)
+            terrain = AGENT_BIT;
+        else if(code == GOAL)
+            terrain = GOAL_BIT;
+        else if(code == HOME)
+            terrain = HOME_BIT;
+        setTerrain(x, y, (flags(x, y) & ~TERRAIN_BITS) | terrain);
+    }
+
+    /**
+     * Sets the flags of a block whose terrain may change, and keeps the landmarks up to date.
+     * @param x row of the block
+     * @param y column of the block
+     * @param after the new bit flags of the block
+     */
+    void setTerrain(int x, int y, int after) {
+        int before = flags(x, y);
+        setFlags(x, y, after);
+        if(((before ^ after) & TERRAIN_BITS) == 0)
+            return;
+        if(((before ^ after) & (OBSTACLE_BIT | AGENT_BIT)) != 0)
+            change(x, y);
+        synchronized(this) {
+            if(landmarks == null && blank)
+                //every other block is still free, so the index is built without a scan
+                landmarks = new Landmarks(this, true);
+            if(landmarks != null)
+                landmarks.update(x, y, before, after);
+        }
+    }
+
+    /**
+     * Starts a new version of the grid for a block whose obstacle, agent or cost changed,
+     * and remembers the block.
+     * @param x row of the block
+     * @param y column of the block
+     */
+    void change(int x, int y) {
+        version++;
+        if(changes == null)
+            changes = new int[CHANGE_LOG];
+        changes[version & (CHANGE_LOG - 1)] = x*width + y;
+    }
+
+    /**
+     * Returns the block whose obstacle, agent or cost change brought the grid to a version, so a
+     * search can repair what it worked out instead of starting over. Only the last
+     * CHANGE_LOG changes are remembered.
+     * @param v a version of the grid, no higher than the current one
+     * @return the block as x*width + y, or -1 if the change is too old to be remembered
+     */
+    public int changed(int v) {
+        if(changes == null || v <= 0 || v > version || version - v >= CHANGE_LOG)
+            return -1;
+        return changes[v & (CHANGE_LOG - 1)];
+    }
+
+    /**
+     * Returns the connected parts of the grid. They are found the first time they are
+     * needed after the obstacles change, and then answer in constant time.
+     * Searches on several threads share the same components.
+     * @return the components of the grid
+     */
+    public synchronized Components components() {
+        if(components == null || components.version != version)
+            components = new Components(this);
+        return components;
+    }
+
+    /**
+     * Returns the clusters of the grid for hierarchical searches. A cluster is worked out
+     * the first time a search reaches it and kept until the obstacles or agents change.
+     * Searches on several threads share the same graph.
+     * @return the cluster graph of the grid
+     */
+    public synchronized ClusterGraph clusters() {
+        if(clusters == null || clusters.version != version)
+            clusters = new ClusterGraph(this);
+        return clusters;
+    }
+
+    /**
+     * Returns the steps from every block to a target block. The field is found once and
+     * kept until the obstacles or agents change, so searches run again on the same grid reuse it.
+     * Searches on other threads can ask at the same time, and a field being found is waited
+     * for rather than found twice. Once the fields take more than DISTANCE_BYTES, the least
+     * recently used ones are dropped. Grids stored in tiles are too large to hold a field for.
+     * @param target block as x*width + y
+     * @return the distance field, or null if the grid is too large
+     */
+    public DistanceField distances(int target) {
+        if((long)length*width > TILED_BLOCKS || target < 0)
+            return null;
+        long key = ((long)version << 32) | target;
+        DistanceField field = distances.get(key);
+        if(field == null) {
+            field = distances.computeIfAbsent(key, k -> new DistanceField(this, target));
+            field.used = distanceClock.incrementAndGet();
+            trimDistances(key);
+            return field;
+        }
+        field.used = distanceClock.incrementAndGet();
+        return field;
+    }
+
+    /**
+     * Drops the distance fields of older versions of the grid, and then the least recently
+     * used fields until the rest fit in DISTANCE_BYTES.
+     * @param keep key of the field just found, which is never dropped
+     */
+    synchronized void trimDistances(long keep) {
+        long bytes = 0;
+        for(java.util.Map.Entry<Long, DistanceField> entry: distances.entrySet()) {
+            if(entry.getKey() != keep && entry.getValue().version != version)
+                distances.remove(entry.getKey());
+            else
+                bytes += entry.getValue().bytes();
+        }
+        while(bytes > DISTANCE_BYTES) {
+            long oldest = keep;
+            long oldestUse = Long.MAX_VALUE;
+            for(java.util.Map.Entry<Long, DistanceField> entry: distances.entrySet()) {
+                if(entry.getKey() != keep && entry.getValue().used < oldestUse) {
+                    oldest = entry.getKey();
+                    oldestUse = entry.getValue().used;
+                }
+            }
+            if(oldest == keep)
+                return;
+            DistanceField dropped = distances.remove(oldest);
+            if(dropped != null)
+                bytes -= dropped.bytes();
+        }
+    }
+
+    /**
+     * Returns the lifelong planner for paths between two blocks. The planner is kept, so
+     * asking again after a few blocks were edited only repairs what the edits changed.
+     * Searches on other threads get the same planner for the same two blocks, so a search
+     * holds the planner's lock while it asks for a path and reads what the path cost.
+     * @param from block the paths start at, as x*width + y
+     * @param target block the paths end at
+     * @return the planner for the two blocks
+     */
+    public LPAStar planner(int from, int target) {
+        long key = (long)from*length*width + target;
+        LPAStar planner = planners.get(key);
+        if(planner == null) {
+            if(planners.size() >= MAX_PLANNERS)
+                planners.clear();
+            planner = planners.computeIfAbsent(key, k -> new LPAStar(this, from, target));
+        }
+        return planner;
+    }
+
+    /**
+     * Returns the home, goal, agent and entry blocks of the grid.
+     * They are kept up to date as blocks change. Searches on several threads share the same landmarks.
+     * @return the landmarks of the grid
+     */
+    public synchronized Landmarks landmarks() {
+        if(landmarks == null)
+            landmarks = new Landmarks(this, blank);
+        return landmarks;
+    }
+
+    /**
+     * Finds a block with the cell code. Home, goal and agent blocks come from the
+     * landmarks, other codes and agents the landmarks do not index are found by the
+     * first block, row by row.
+     * @param code a cell code
+     * @return the block as x*width + y, or -1 if no block has the code
+     */
+    public int find(int code) {
+        if(code == HOME)
+            return landmarks().homes.first();
+        if(code == GOAL)
+            return landmarks().goals.first();
+        if(code == AGENT && landmarks().agents != null)
+            return landmarks().agents.first();
+        for(int i = 0; i < length; i++) {
+            for(int j = 0; j < width; j++) {
+                if(getCell(i, j) == code)
+                    return i*width + j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the cost of entering a block. Blocks cost one step unless given a terrain cost.
+     * @param x row of the block
+     * @param y column of the block
+     * @return the cost, from 1 to MAX_COST
+     */
+    public int getCost(int x, int y) {
+        if(costs == null)
+            return 1;
+        return (costs.flags(x, y) & 0xff) + 1;
+    }
+
+    /**
+     * Sets the terrain cost of entering a block.
+     * @param x row of the block
+     * @param y column of the block
+     * @param cost the cost, from 1 to MAX_COST
+     */
+    public void setCost(int x, int y, int cost) {
+        if(cost < 1 || cost > MAX_COST)
+            throw new IllegalArgumentException("Terrain costs go from 1 to " + MAX_COST + ": " + cost);
+        if(cost == getCost(x, y))
+            return;
+        if(costs == null)
+            costs = new TiledGrid(length, width);
+        costs.setFlags(x, y, cost - 1);
+        maxCost = Math.max(maxCost, cost);
+        //the cheapest paths through the block may have changed
+        change(x, y);
+    }
+
+    /**
+     * Determines if the position is inside the grid.
+     * @param x row of the block
+     * @param y column of the block
+     * @return true if the block exists
+     */
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < length && y < width;
+    }
+
+    public boolean isObstacle(int x, int y) {
+        return (flags(x, y) & OBSTACLE_BIT) != 0;
+    }
+
+    public boolean isAgent(int x, int y) {
+        return (flags(x, y) & AGENT_BIT) != 0;
+    }
+
+    public boolean isGoal(int x, int y) {
+        return (flags(x, y) & GOAL_BIT) != 0;
+    }
+
+    public boolean isHome(int x, int y) {
+        return (flags(x, y) & HOME_BIT) != 0;
+    }
+
+    public boolean isTraversed(int x, int y) {
+        return (flags(x, y) & TRAVERSED_BIT) != 0;
+    }
+
+    public boolean isHomeTraversed(int x, int y) {
+        return (flags(x, y) & HOME_TRAVERSED_BIT) != 0;
+    }
+
+    public boolean isRobotDeath(int x, int y) {
+        return (flags(x, y) & DIED_BIT) != 0;
+    }
+
+    /**
+     * Same rule as Block.isBlockFree: not an agent, obstacle, goal or home.
+     * @param x row of the block
+     * @param y column of the block
+     * @return true if the block is free
+     */
+    public boolean isFree(int x, int y) {
+        return (flags(x, y) & TERRAIN_BITS) == 0;
+    }
+
+    /**
+     * Sets the block as a starting block for the robot agent.
+     */
+    public void setHome(int x, int y) {
+        setTerrain(x, y, flags(x, y) | HOME_BIT);
+    }
+
+    /**
+     * Removes the starting block for the robot agent from the block.
+     */
+    public void clearHome(int x, int y) {
+        setTerrain(x, y, flags(x, y) & ~HOME_BIT);
+    }
+
+    /**
+     * Sets the block as an agent.
+     */
+    public void setAgent(int x, int y) {
+        setTerrain(x, y, (flags(x, y) & ~OBSTACLE_BIT) | AGENT_BIT);
+    }
+
+    /**
+     * Sets the block as an obstacle.
+     */
+    public void setObstacle(int x, int y) {
+        setTerrain(x, y, (flags(x, y) & ~AGENT_BIT) | OBSTACLE_BIT);
+    }
+
+    /**
+     * Sets the block as the one to carry the object goal.
+     */
+    public void setGoal(int x, int y) {
+        setTerrain(x, y, (flags(x, y) & ~(AGENT_BIT | OBSTACLE_BIT)) | GOAL_BIT);
+    }
+
+    /**
+     * Sets the block as traversed before object pick up.
+     */
+    public void setTraversed(int x, int y) {
+        setFlags(x, y, flags(x, y) | TRAVERSED_BIT);
+        searchedRow(x);
+    }
+
+    /**
+     * Sets the block as traversed after object pick up.
+     */
+    public void setHomeTraversed(int x, int y) {
+        setFlags(x, y, flags(x, y) | HOME_TRAVERSED_BIT);
+        searchedRow(x);
+    }
+
+    /**
+     * Sets the block as the block where the robot agent died.
+     */
+    public void setRobotDeath(int x, int y) {
+        setFlags(x, y, flags(x, y) | DIED_BIT);
+        searchedRow(x);
+    }
+
+    /**
+     * Clears the traversed states of the block for future grid uses.
+     */
+    public void clearTraversed(int x, int y) {
+        setFlags(x, y, flags(x, y) & ~(TRAVERSED_BIT | HOME_TRAVERSED_BIT | DIED_BIT));
+    }
+
+    /**
+     * Clears the traversed states of every block for future grid uses. Only the rows
+     * the robot has been on since the last clear are visited.
+     */
+    public void clearTraversed() {
+        if(searchedRows == null)
+            return;
+        for(int w = 0; w < searchedRows.length; w++) {
+            long rows = searchedRows[w];
+            while(rows != 0) {
+                int x = (w << 6) + Long.numberOfTrailingZeros(rows);
+                rows &= rows - 1;
+                for(int y = 0; y < width; y++) {
+                    if((flags(x, y) & (TRAVERSED_BIT | HOME_TRAVERSED_BIT | DIED_BIT)) != 0)
+                        clearTraversed(x, y);
+                }
+            }
+            searchedRows[w] = 0;
+        }
+    }
+
+    /**
+     * Remembers that a row has a block with a traversed state.
+     * @param x the row
+     */
+    void searchedRow(int x) {
+        if(searchedRows == null)
+            searchedRows = new long[(length + 63) >>> 6];
+        searchedRows[x >>> 6] |= 1L << x;
+    }
+
+    /**
+     * Reads a grid that follows the grid file format.
+     * FILE FORMAT:
+     * BEGIN
+     * length
+     * width
+     * 0|1|2|3|4 ::= 0 -> obstacle, 1 -> agent, 2 -> goal, 3-> home,  4-> free
+     * END
+     * and, for grids with terrain costs,
+     * COSTS
+     * 1 to MAX_COST, the cost of entering each block
+     * END
+     * Files in the mapped grid file format are mapped into memory instead of being read.
+     * @param file grid file to read
+     * @return the grid stored in the file
+     * @throws IOException if the file can not be read or does not follow the format
+     * @throws IllegalArgumentException if the grid has more than MAX_BLOCKS blocks
+     */
+    public static Grid load(File file) throws IOException {
+        if(MappedGrid.isMappedGrid(file))
+            return MappedGrid.open(file);
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            if(!"BEGIN".equals(reader.readLine()))
+                throw new IOException("This file does not comply to the grid file format.");
+            int len = Integer.parseInt(reader.readLine().trim());
+            int wid = Integer.parseInt(reader.readLine().trim());
+            Grid grid = create(len, wid);
+            for(int i = 0; i < len; i++) {
+                for(int j = 0; j < wid; j++) {
+                    String line = reader.readLine();
+                    if(line == null)
+                        throw new IOException("This file does not comply to the grid file format.");
+                    int code = Integer.parseInt(line.trim());
+                    if(code < OBSTACLE || code > FREE)
+                        throw new IOException("This file does not comply to the grid file format.");
+                    grid.setCell(i, j, code);
+                }
+            }
+            if(!"END".equals(reader.readLine()))
+                throw new IOException("This file does not comply to the grid file format.");
+            if("COSTS".equals(reader.readLine())) {
+                for(int i = 0; i < len; i++) {
+                    for(int j = 0; j < wid; j++) {
+                        int cost = Integer.parseInt(reader.readLine().trim());
+                        if(cost < 1 || cost > MAX_COST)
+                            throw new IOException("This file does not comply to the grid file format.");
+                        grid.setCost(i, j, cost);
+                    }
+                }
+                if(!"END".equals(reader.readLine()))
+                    throw new IOException("This file does not comply to the grid file format.");
+            }
+            return grid;
+        }
+        catch (NumberFormatException | NullPointerException e) {
+            throw new IOException("This file does not comply to the grid file format.");
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Writes the grid in the grid file format.
+     * @param out where to write the grid
+     */
+    public void save(PrintWriter out) {
+        out.println("BEGIN");
+        out.println(length);
+        out.println(width);
+        for(int i = 0; i < length; i++) {
+            for(int j = 0; j < width; j++) {
+                out.println(getCell(i, j));
+            }
+        }
+        out.println("END");
+        if(costs != null) {
+            out.println("COSTS");
+            for(int i = 0; i < length; i++) {
+                for(int j = 0; j < width; j++) {
+                    out.println(getCost(i, j));
+                }
+            }
+            out.println("END");
+        }
+    }
+}
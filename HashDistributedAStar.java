@@ -0,0 +1,297 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A* on several threads at once (Hash Distributed A*). Every block is owned by one worker,
+ * picked by a hash of the tile the block is in, and only its owner keeps its cost, its parent and its place
+ * in an open list. A worker expands the cheapest block of its own open list, and sends each
+ * neighbor that another worker owns to that worker's inbox. Inboxes are lock-free queues that
+ * any worker can add to and only the owner takes from.
+ *
+ * The workers do not expand blocks in one global order, so a block can be reached again at a
+ * lower cost after it was expanded. It is then opened again. A worker that reaches the target
+ * offers its cost as the best path so far, and blocks that cost as much or more are not expanded.
+ *
+ * The search is over when no worker is busy and no message is waiting. One counter holds the
+ * busy workers plus the messages that are sent and not yet taken. A message is counted before
+ * it is sent, and an idle worker that takes one counts itself busy before the message is
+ * uncounted, so the counter can only reach zero once everything is done.
+ * A worker with nothing to do parks until a message is sent to it or the counter reaches
+ * zero, so idle workers leave the cores to the busy ones instead of spinning on them.
+ * Obstacles and agents are both walls, and entering a block costs its terrain cost.
+ * @author Andrew C. Haynes
+ */
+public class HashDistributedAStar {
+
+    Grid grid;
+    int width;
+    int tilesAcross;
+    int target;
+    //exact steps to the target when the grid is small enough to keep them
+    DistanceField field;
+    Worker[] workers;
+    //busy workers plus messages in the inboxes
+    AtomicInteger work;
+    //cost of the best path to the target found so far
+    volatile double best;
+
+    /**
+     * Creates the search for a grid.
+     * @param grid the grid to search
+     * @param threads number of workers
+     */
+    public HashDistributedAStar(Grid grid, int threads) {
+        this.grid = grid;
+        width = grid.width;
+        tilesAcross = (width + TiledGrid.TILE_MASK) >>> TiledGrid.TILE_BITS;
+        workers = new Worker[Math.max(1, threads)];
+    }
+
+    /**
+     * Finds a cheapest path between two blocks.
+     * @param from block the path starts at, as x*width + y
+     * @param target block the path ends at
+     * @return the blocks of the path from start to target, or null if there is none
+     */
+    public int[] search(int from, int target) {
+        this.target = target;
+        field = grid.distances(target);
+        best = Double.POSITIVE_INFINITY;
+        for(int i = 0; i < workers.length; i++)
+            workers[i] = new Worker();
+        //every worker starts out busy
+        work = new AtomicInteger(workers.length);
+        workers[owner(from)].receive(from, ParentTable.NONE, 0);
+        Thread[] threads = new Thread[workers.length];
+        for(int i = 1; i < workers.length; i++) {
+            threads[i] = new Thread(workers[i]);
+            threads[i].start();
+        }
+        workers[0].run();
+        try {
+            for(int i = 1; i < workers.length; i++)
+                threads[i].join();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if(best == Double.POSITIVE_INFINITY)
+            return null;
+        return path(from);
+    }
+
+    /**
+     * Returns how many blocks the workers expanded during the last search.
+     * @return blocks expanded by all workers, counting blocks opened again
+     */
+    public int expanded() {
+        int total = 0;
+        for(Worker w: workers)
+            total += w.expanded;
+        return total;
+    }
+
+    /**
+     * Returns the largest open lists of the last search, all workers together.
+     * @return blocks in the largest open list of each worker
+     */
+    public int widest() {
+        int total = 0;
+        for(Worker w: workers)
+            total += w.widest;
+        return total;
+    }
+
+    /**
+     * Picks the worker that owns a block. The blocks of a 64x64 tile share an owner, so a path
+     * only moves to another worker at the edge of a tile, and each worker's tables only
+     * allocate the tiles it owns. Neighboring tiles get unrelated owners, so the tiles of any
+     * part of the grid are shared out evenly.
+     * @param cell block as x*width + y
+     * @return index of the worker
+     */
+    int owner(int cell) {
+        int tile = ((cell / width) >>> TiledGrid.TILE_BITS)*tilesAcross + ((cell % width) >>> TiledGrid.TILE_BITS);
+        int h = tile * 0x9E3779B9;
+        return ((h ^ (h >>> 16)) & 0x7FFFFFFF) % workers.length;
+    }
+
+    /**
+     * Wakes every parked worker once the search is over, so each one sees that it is.
+     */
+    void wakeAll() {
+        for(Worker w: workers)
+            w.wake();
+    }
+
+    /**
+     * Records a path to the target if it is the cheapest one so far.
+     * @param cost cost of the path
+     */
+    synchronized void offer(double cost) {
+        if(cost < best)
+            best = cost;
+    }
+
+    /**
+     * Follows the parents back from the target, asking the owner of each block.
+     * @param from block the path starts at
+     * @return the blocks of the path from start to target
+     */
+    int[] path(int from) {
+        int[] back = new int[16];
+        int n = 0;
+        for(int cell = target; cell != ParentTable.NONE; cell = workers[owner(cell)].parents.get(cell)) {
+            if(n == back.length)
+                back = java.util.Arrays.copyOf(back, n*2);
+            back[n++] = cell;
+        }
+        return SearchEngine.reversed(java.util.Arrays.copyOf(back, n));
+    }
+
+    /**
+     * Distance from a block to the target, the heuristic of the A* searches.
+     * @param cell block as x*width + y
+     * @return the exact steps when the grid keeps a distance field, the straight line distance otherwise
+     */
+    double heuristic(int cell) {
+        if(field != null)
+            return field.cost(cell);
+        int x = Math.abs(cell / width - target / width);
+        int y = Math.abs(cell % width - target % width);
+        return Math.sqrt((x*x)+(y*y));
+    }
+
+    /**
+     * A block sent to its owner, with the cost of the path that reached it.
+     */
+    static class Message {
+        int cell;
+        int parent;
+        double cost;
+
+        Message(int cell, int parent, double cost) {
+            this.cell = cell;
+            this.parent = parent;
+            this.cost = cost;
+        }
+    }
+
+    /**
+     * One thread of the search and the blocks it owns.
+     */
+    class Worker implements Runnable {
+        ConcurrentLinkedQueue<Message> inbox;
+        IndexedHeap open;
+        CostTable gCost;
+        ParentTable parents;
+        int expanded;
+        int widest;
+        //the thread running the worker, and true from just before it checks for work until it wakes
+        volatile Thread thread;
+        volatile boolean parked;
+
+        Worker() {
+            inbox = new ConcurrentLinkedQueue<>();
+            open = new IndexedHeap(grid.length, width);
+            gCost = new CostTable(grid.length, width, Double.POSITIVE_INFINITY);
+            parents = new ParentTable(grid.length, width);
+        }
+
+        /**
+         * Takes messages and expands blocks until the whole search is done.
+         */
+        public void run() {
+            thread = Thread.currentThread();
+            boolean busy = true;
+            while(true) {
+                Message m = inbox.poll();
+                if(m != null) {
+                    if(!busy) {
+                        work.incrementAndGet();
+                        busy = true;
+                    }
+                    receive(m.cell, m.parent, m.cost);
+                    work.decrementAndGet();
+                }
+                else if(busy && !open.isEmpty() && open.minCost() < best) {
+                    if(widest < open.size())
+                        widest = open.size();
+                    expand(open.poll());
+                }
+                else {
+                    if(busy) {
+                        busy = false;
+                        if(work.decrementAndGet() == 0)
+                            wakeAll();
+                    }
+                    if(work.get() == 0)
+                        return;
+                    //parked is set before the checks, and senders set the inbox or counter before
+                    //they read it, so a message or the end of the search is never missed
+                    parked = true;
+                    if(inbox.isEmpty() && work.get() != 0)
+                        LockSupport.park(this);
+                    parked = false;
+                }
+            }
+        }
+
+        /**
+         * Wakes the worker if it is parked waiting for messages.
+         */
+        void wake() {
+            if(parked)
+                LockSupport.unpark(thread);
+        }
+
+        /**
+         * Opens a block this worker owns if the path that reached it is the cheapest so far.
+         * @param cell block as x*width + y
+         * @param parent block it was reached from
+         * @param cost cost of the path to the block
+         */
+        void receive(int cell, int parent, double cost) {
+            if(cost >= gCost.get(cell))
+                return;
+            gCost.set(cell, cost);
+            parents.set(cell, parent);
+            double h = heuristic(cell);
+            open.push(cell, cost + h, h);
+        }
+
+        /**
+         * Expands a block, passing each neighbor to its owner.
+         * @param cell block as x*width + y
+         */
+        void expand(int cell) {
+            expanded++;
+            double g = gCost.get(cell);
+            if(cell == target) {
+                offer(g);
+                return;
+            }
+            int x = cell / width;
+            int y = cell % width;
+            int[] next = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+            for(int i = 0; i < 8; i += 2) {
+                if(!grid.inBounds(next[i], next[i+1]) || grid.isObstacle(next[i], next[i+1]) || grid.isAgent(next[i], next[i+1]))
+                    continue;
+                int child = next[i]*width + next[i+1];
+                double cost = g + grid.getCost(next[i], next[i+1]);
+                Worker to = workers[owner(child)];
+                if(to == this) {
+                    receive(child, cell, cost);
+                }
+                else {
+                    //counted before it is sent, while this worker is still busy
+                    work.incrementAndGet();
+                    to.inbox.add(new Message(child, cell, cost));
+                    to.wake();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * Hierarchical A* Search plans each leg before the robot moves. A* runs over the entrances
+ * between the 64x64 clusters of the grid, and the path is then filled in block by block inside
+ * each cluster. The robot walks the path to the object, then plans and walks the way home.
+ * The clusters are kept by the grid, so planning the way home reuses the ones already worked out.
+ * Agents are walls to the search, and every step counts as one.
+ * (Note: There are instances where no paths exist.)
+ * @author Andrew C. Haynes
+ */
+public class HierarchicalAStarSearch extends AnimatedSearch {
+
+    /**
+     * Instantiates the Hierarchical A* Search by connecting the robot agent to the
+     * search.
+     * @param agent Robot agent committing the search
+     */
+    public HierarchicalAStarSearch(Agent agent) {
+        super(agent, "Hierarchical A* Search");
+    }
+
+    /**
+     * Performs a Hierarchical A* Search from home to the object and back.
+     */
+    public void hpaSearch() {
+        this.start();
+    }
+}
@@ -0,0 +1,245 @@
+/**
+ * Iterative Deepening A* (IDA*). A depth-first search that only follows a block while its
+ * cost so far plus its distance to the target stays within a bound. When a pass finds
+ * nothing, the bound is raised to the lowest cost plus distance that went over it and the
+ * search starts again from the start block. The first time the target is reached, its path
+ * is a cheapest one.
+ *
+ * Only the path being followed is kept: the block, the cost to it and how many of its
+ * neighbors have been tried, for each step. A block is only skipped if it is already on that
+ * path, which is looked up in a hash table of the blocks on the path, at least twice as large
+ * as the path. Memory grows with the length of the path and not with the grid or the part of
+ * it searched, and very large grids can be searched without keeping a table for every block.
+ *
+ * Without anything else, a pass would reach the same block along every path that fits the
+ * bound, and mazes take exponentially many steps. A small cache of fixed size remembers the
+ * cheapest cost each block was reached at during the pass. A block reached again at no lower
+ * cost has had everything within the bound searched from it already, so it is skipped. Blocks
+ * that share a slot push each other out, which only costs some searching again.
+ *
+ * The search is driven one block at a time with next, so the robot can walk to each block
+ * as it is examined. Entering a block costs its terrain cost. The distance to the target is
+ * the Manhattan distance on every grid, never a distance field, which would take a table the
+ * size of the grid and, being exact, leave nothing for the deepening to do. Agents are not
+ * walls, and a robot that is sent onto one dies, like in the other depth-first searches.
+ * @author Andrew C. Haynes
+ */
+public class IDAStar {
+
+    public static final int NONE = -1;
+    //slots in the cache, so it never takes more than about 1MB
+    public static final int CACHE_SIZE = 1 << 16;
+    //slots for the blocks on the path at first, doubled while the path fills more than half of them
+    static final int PATH_SLOTS = 256;
+
+    Grid grid;
+    int width;
+    int from;
+    int target;
+    //the path being followed, the cost to each of its blocks and the neighbors tried from it
+    int[] stack;
+    double[] cost;
+    int[] tried;
+    int depth;
+    //blocks on the path plus one in open addressed slots, 0 for an empty slot, so the search never walks in a circle
+    int[] pathSlots;
+    int pathMask;
+    //block, cost and pass kept in each slot of the cache
+    int[] seenCell;
+    double[] seenCost;
+    int[] seenPass;
+    int mask;
+    //cost plus distance a block may have this pass, and the lowest one over it
+    double bound;
+    double nextBound;
+    //blocks examined, passes started and the longest path followed
+    int expanded;
+    int passes;
+    int deepest;
+
+    /**
+     * Creates the search between two blocks. The first call to next returns the start block.
+     * @param grid the grid to search
+     * @param from block the path starts at, as x*width + y
+     * @param target block the path ends at
+     */
+    public IDAStar(Grid grid, int from, int target) {
+        this.grid = grid;
+        width = grid.width;
+        this.from = from;
+        this.target = target;
+        stack = new int[16];
+        cost = new double[16];
+        tried = new int[16];
+        pathSlots = new int[PATH_SLOTS];
+        pathMask = PATH_SLOTS - 1;
+        //no more slots than blocks on small grids
+        int slots = CACHE_SIZE;
+        while(slots / 2 >= (long)grid.length*width)
+            slots /= 2;
+        seenCell = new int[slots];
+        seenCost = new double[slots];
+        seenPass = new int[slots];
+        mask = slots - 1;
+        bound = heuristic(from);
+        depth = -1;
+        expanded = 0;
+        passes = 0;
+        deepest = 0;
+    }
+
+    /**
+     * Returns the next block the search examines. Its path is the one returned by path,
+     * so the search is over once the target is returned.
+     * @return the block, or NONE if there is no path to the target
+     */
+    public int next() {
+        while(true) {
+            if(depth < 0) {
+                //a pass is over, or none has started yet
+                if(passes > 0 && nextBound == Double.POSITIVE_INFINITY)
+                    return NONE;
+                if(passes > 0)
+                    bound = nextBound;
+                passes++;
+                nextBound = Double.POSITIVE_INFINITY;
+                java.util.Arrays.fill(pathSlots, 0);
+                return push(from, 0);
+            }
+            int cell = stack[depth];
+            if(cell == target || tried[depth] == 4) {
+                //every way on from this block is over the bound, so step back
+                leavePath(cell);
+                depth--;
+                continue;
+            }
+            int x = cell / width;
+            int y = cell % width;
+            //DOWN, UP, RIGHT, LEFT
+            int direction = tried[depth]++;
+            int childX = direction == 0 ? x+1 : direction == 1 ? x-1 : x;
+            int childY = direction == 2 ? y+1 : direction == 3 ? y-1 : y;
+            if(!grid.inBounds(childX, childY) || grid.isObstacle(childX, childY))
+                continue;
+            int child = childX*width + childY;
+            if(isOnPath(child))
+                continue;
+            double g = cost[depth] + grid.getCost(childX, childY);
+            double f = g + heuristic(child);
+            if(f > bound) {
+                if(f < nextBound)
+                    nextBound = f;
+                continue;
+            }
+            //searched already this pass from a path that was no dearer
+            int slot = (child * 0x9E3779B9) >>> 16 & mask;
+            if(seenPass[slot] == passes && seenCell[slot] == child && seenCost[slot] <= g)
+                continue;
+            seenCell[slot] = child;
+            seenCost[slot] = g;
+            seenPass[slot] = passes;
+            return push(child, g);
+        }
+    }
+
+    /**
+     * Puts a block at the end of the path being followed.
+     * @param cell block as x*width + y
+     * @param g cost of the path to the block
+     * @return the block
+     */
+    int push(int cell, double g) {
+        depth++;
+        if(depth == stack.length) {
+            stack = java.util.Arrays.copyOf(stack, depth*2);
+            cost = java.util.Arrays.copyOf(cost, depth*2);
+            tried = java.util.Arrays.copyOf(tried, depth*2);
+        }
+        stack[depth] = cell;
+        cost[depth] = g;
+        tried[depth] = 0;
+        enterPath(cell);
+        expanded++;
+        if(deepest < depth + 1)
+            deepest = depth + 1;
+        return cell;
+    }
+
+    /**
+     * Finds the slot of a block in the table of the blocks on the path.
+     * @param cell block as x*width + y
+     * @return the slot holding the block, or the empty slot it would go in
+     */
+    int pathSlot(int cell) {
+        int h = cell * 0x9E3779B9;
+        int slot = (h ^ (h >>> 16)) & pathMask;
+        while(pathSlots[slot] != 0 && pathSlots[slot] != cell + 1)
+            slot = (slot + 1) & pathMask;
+        return slot;
+    }
+
+    /**
+     * Determines if a block is on the path being followed.
+     * @param cell block as x*width + y
+     * @return true if the block is on the path
+     */
+    boolean isOnPath(int cell) {
+        return pathSlots[pathSlot(cell)] != 0;
+    }
+
+    /**
+     * Adds a block to the table of the blocks on the path, which has room for depth + 1 blocks.
+     * @param cell block as x*width + y
+     */
+    void enterPath(int cell) {
+        if(2*(depth + 1) > pathSlots.length) {
+            int[] old = pathSlots;
+            pathSlots = new int[old.length*2];
+            pathMask = pathSlots.length - 1;
+            for(int held: old) {
+                if(held != 0)
+                    pathSlots[pathSlot(held - 1)] = held;
+            }
+        }
+        pathSlots[pathSlot(cell)] = cell + 1;
+    }
+
+    /**
+     * Removes a block from the table of the blocks on the path. The blocks after it that
+     * could go in its slot are moved back, so none of them is cut off from its home slot.
+     * @param cell block as x*width + y
+     */
+    void leavePath(int cell) {
+        int empty = pathSlot(cell);
+        pathSlots[empty] = 0;
+        for(int slot = (empty + 1) & pathMask; pathSlots[slot] != 0; slot = (slot + 1) & pathMask) {
+            int h = (pathSlots[slot] - 1) * 0x9E3779B9;
+            int home = (h ^ (h >>> 16)) & pathMask;
+            //the block stays if its home slot is after the empty slot and no later than its own
+            if(((slot - home) & pathMask) < ((slot - empty) & pathMask))
+                continue;
+            pathSlots[empty] = pathSlots[slot];
+            pathSlots[slot] = 0;
+            empty = slot;
+        }
+    }
+
+    /**
+     * Returns the path to the block next returned last.
+     * @return the blocks of the path from the start block
+     */
+    public int[] path() {
+        return java.util.Arrays.copyOf(stack, depth + 1);
+    }
+
+    /**
+     * Manhattan distance from a block to the target, no more than the cost of any path between
+     * them. It is a whole number, like the costs, so each pass raises the bound by at least one
+     * step and the search needs few passes.
+     * @param cell block as x*width + y
+     * @return the distance
+     */
+    double heuristic(int cell) {
+        return Math.abs(cell / width - target / width) + Math.abs(cell % width - target % width);
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * Iterative Deepening A* Search runs depth-first passes from home that only follow a block
+ * while its cost so far plus its distance to the goal object stays within a bound, and raises
+ * the bound after each pass that finds nothing. The robot walks to every block a pass
+ * examines. Only the path being followed is remembered, so the search needs little memory
+ * however large the grid is. Once the object is found, the same search runs back home.
+ * (Note: There are instances where no paths exist.)
+ * @author Andrew C. Haynes
+ */
+public class IDAStarSearch extends AnimatedSearch {
+
+    /**
+     * Instantiates the Iterative Deepening A* Search by connecting the robot agent to the
+     * search.
+     * @param agent Robot agent committing the search
+     */
+    public IDAStarSearch(Agent agent) {
+        super(agent, "Iterative Deepening A* Search");
+    }
+
+    /**
+     * Performs an Iterative Deepening A* Search from home to the object and back.
+     */
+    public void idaSearch() {
+        this.start();
+    }
+}
@@ -0,0 +1,256 @@
+/**
+ * A binary min-heap of blocks for the open list of A*. It remembers where each block sits
+ * in the heap, so a block already in it can have its cost lowered in place instead of being
+ * searched for or added twice. Taking the cheapest block and lowering a cost both take
+ * O(log n) steps.
+ *
+ * Blocks are ordered by their cost, and blocks of equal cost by their heuristic, so the
+ * block closest to the target is expanded first. Where each block sits is kept in 64x64
+ * tiles, like the costs in a CostTable.
+ * @author Andrew C. Haynes
+ */
+public class IndexedHeap {
+
+    int width;
+    int tilesAcross;
+    //slot of each block in the heap plus one, 0 if it is not in the heap
+    int[][] slots;
+    int[] cells;
+    double[] costs;
+    double[] heuristics;
+    int size;
+
+    /**
+     * Creates an empty heap for a grid.
+     * @param len length of the grid
+     * @param wid width of the grid
+     */
+    public IndexedHeap(int len, int wid) {
+        width = wid;
+        tilesAcross = (wid + TiledGrid.TILE_MASK) >>> TiledGrid.TILE_BITS;
+        int tilesDown = (len + TiledGrid.TILE_MASK) >>> TiledGrid.TILE_BITS;
+        slots = new int[tilesDown*tilesAcross][];
+        cells = new int[16];
+        costs = new double[16];
+        heuristics = new double[16];
+        size = 0;
+    }
+
+    /**
+     * Makes room for more rows of blocks, keeping the blocks already in the heap.
+     * @param len new length of the grid, at least the old one
+     */
+    public void grow(int len) {
+        int tilesDown = (len + TiledGrid.TILE_MASK) >>> TiledGrid.TILE_BITS;
+        if(tilesDown*tilesAcross > slots.length)
+            slots = java.util.Arrays.copyOf(slots, tilesDown*tilesAcross);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Determines if a block is in the heap.
+     * @param cell block as x*width + y
+     * @return true if the block is waiting to be expanded
+     */
+    public boolean contains(int cell) {
+        return slot(cell) >= 0;
+    }
+
+    /**
+     * Returns the cost a block is in the heap with.
+     * @param cell block as x*width + y
+     * @return the cost, or infinity if the block is not in the heap
+     */
+    public double cost(int cell) {
+        int i = slot(cell);
+        return i < 0 ? Double.POSITIVE_INFINITY : costs[i];
+    }
+
+    /**
+     * Adds a block, or lowers its cost if it is already in the heap with a higher one.
+     * @param cell block as x*width + y
+     * @param cost fitness cost of the block
+     * @param heuristic heuristic part of the cost, used to break ties
+     */
+    public void push(int cell, double cost, double heuristic) {
+        int i = slot(cell);
+        if(i >= 0) {
+            if(cost < costs[i] || (cost == costs[i] && heuristic < heuristics[i])) {
+                costs[i] = cost;
+                heuristics[i] = heuristic;
+                up(i);
+            }
+            return;
+        }
+        if(size == cells.length) {
+            cells = java.util.Arrays.copyOf(cells, size*2);
+            costs = java.util.Arrays.copyOf(costs, size*2);
+            heuristics = java.util.Arrays.copyOf(heuristics, size*2);
+        }
+        cells[size] = cell;
+        costs[size] = cost;
+        heuristics[size] = heuristic;
+        setSlot(cell, size);
+        up(size++);
+    }
+
+    /**
+     * Sets the cost of a block already in the heap, higher or lower, or adds it.
+     * @param cell block as x*width + y
+     * @param cost fitness cost of the block
+     * @param heuristic heuristic part of the cost, used to break ties
+     */
+    public void update(int cell, double cost, double heuristic) {
+        int i = slot(cell);
+        if(i < 0) {
+            push(cell, cost, heuristic);
+            return;
+        }
+        costs[i] = cost;
+        heuristics[i] = heuristic;
+        up(i);
+        down(slot(cell));
+    }
+
+    /**
+     * Takes a block out of the heap, wherever it sits.
+     * @param cell block as x*width + y
+     */
+    public void remove(int cell) {
+        int i = slot(cell);
+        if(i < 0)
+            return;
+        setSlot(cell, -1);
+        size--;
+        if(i < size) {
+            //the last block fills the hole, then finds its place
+            int last = cells[size];
+            move(size, i);
+            up(i);
+            down(slot(last));
+        }
+    }
+
+    /**
+     * Returns the block with the lowest cost without removing it.
+     * @return the block as x*width + y
+     */
+    public int peek() {
+        return cells[0];
+    }
+
+    /**
+     * Returns the lowest cost in the heap.
+     * @return the cost of the block peek returns
+     */
+    public double minCost() {
+        return costs[0];
+    }
+
+    /**
+     * Returns the heuristic of the block with the lowest cost.
+     * @return the heuristic of the block peek returns
+     */
+    public double minHeuristic() {
+        return heuristics[0];
+    }
+
+    /**
+     * Removes the block with the lowest cost.
+     * @return the block as x*width + y
+     */
+    public int poll() {
+        int cell = cells[0];
+        setSlot(cell, -1);
+        size--;
+        if(size > 0) {
+            move(size, 0);
+            down(0);
+        }
+        return cell;
+    }
+
+    /**
+     * Removes every block.
+     */
+    public void clear() {
+        for(int i = 0; i < size; i++)
+            setSlot(cells[i], -1);
+        size = 0;
+    }
+
+    boolean less(int a, int b) {
+        return costs[a] < costs[b] || (costs[a] == costs[b] && heuristics[a] < heuristics[b]);
+    }
+
+    void up(int i) {
+        while(i > 0) {
+            int parent = (i - 1) >>> 1;
+            if(!less(i, parent))
+                break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    void down(int i) {
+        while(true) {
+            int child = 2*i + 1;
+            if(child >= size)
+                break;
+            if(child + 1 < size && less(child + 1, child))
+                child++;
+            if(!less(child, i))
+                break;
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    void swap(int a, int b) {
+        int cell = cells[a];
+        double cost = costs[a];
+        double heuristic = heuristics[a];
+        move(b, a);
+        cells[b] = cell;
+        costs[b] = cost;
+        heuristics[b] = heuristic;
+        setSlot(cell, b);
+    }
+
+    //moves the block in slot from into slot to
+    void move(int from, int to) {
+        cells[to] = cells[from];
+        costs[to] = costs[from];
+        heuristics[to] = heuristics[from];
+        setSlot(cells[to], to);
+    }
+
+    int slot(int cell) {
+        int x = cell / width;
+        int y = cell % width;
+        int[] tile = slots[(x >>> TiledGrid.TILE_BITS)*tilesAcross + (y >>> TiledGrid.TILE_BITS)];
+        if(tile == null)
+            return -1;
+        return tile[((x & TiledGrid.TILE_MASK) << TiledGrid.TILE_BITS) | (y & TiledGrid.TILE_MASK)] - 1;
+    }
+
+    void setSlot(int cell, int slot) {
+        int x = cell / width;
+        int y = cell % width;
+        int t = (x >>> TiledGrid.TILE_BITS)*tilesAcross + (y >>> TiledGrid.TILE_BITS);
+        int[] tile = slots[t];
+        if(tile == null) {
+            tile = new int[TiledGrid.TILE_SIZE*TiledGrid.TILE_SIZE];
+            slots[t] = tile;
+        }
+        tile[((x & TiledGrid.TILE_MASK) << TiledGrid.TILE_BITS) | (y & TiledGrid.TILE_MASK)] = slot + 1;
+    }
+}
@@ -0,0 +1,25 @@
+/**
+ * Jump Point Search is A* Search that only stops at jump points, the blocks where a
+ * shortest path can turn. The robot jumps straight from one jump point to the next,
+ * coloring the blocks it jumps over. Agents are walls to the jumps.
+ * (Note: There are instances where no paths exist.)
+ * @author Andrew C. Haynes
+ */
+public class JumpPointSearch extends AnimatedSearch {
+
+    /**
+     * Instantiates the Jump Point Search by connecting the robot agent to the
+     * search.
+     * @param agent Robot agent committing the search
+     */
+    public JumpPointSearch(Agent agent) {
+        super(agent, "Jump Point Search");
+    }
+
+    /**
+     * Performs a Jump Point Search from home to the object and back.
+     */
+    public void jpSearch() {
+        this.start();
+    }
+}
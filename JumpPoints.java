@@ -0,0 +1,163 @@
+/**
+ * Jump Point Search on the 4-connected grid. Of all the equally short paths between two
+ * blocks, only the ones that move up or down first and turn sideways only when they have
+ * to are searched. A search then only stops at jump points, the blocks where such a path
+ * can turn, and jumps straight over every block in between.
+ *
+ * Moving sideways, a block is a jump point when a block above or below it is open but the
+ * block behind that one is not, since the path could not have turned there sooner. Moving up
+ * or down, a block is a jump point when a sideways jump from it finds a jump point.
+ * Obstacles and agents are both walls to the robot here, and every step costs one.
+ * @author Andrew C. Haynes
+ */
+public class JumpPoints {
+
+    public static final int NONE = -1;
+
+    Grid grid;
+    int length;
+    int width;
+
+    /**
+     * Creates the jump point rules for a grid.
+     * @param grid the grid to search
+     */
+    public JumpPoints(Grid grid) {
+        this.grid = grid;
+        length = grid.length;
+        width = grid.width;
+    }
+
+    /**
+     * Determines if the robot can walk onto a block.
+     * @param x row of the block
+     * @param y column of the block
+     * @return true if the block is in the grid and is not an obstacle or an agent
+     */
+    boolean open(int x, int y) {
+        return grid.inBounds(x, y) && !grid.isObstacle(x, y) && !grid.isAgent(x, y);
+    }
+
+    /**
+     * Finds the jump points that can follow a block on a path, and the target if it
+     * is on one of the jumps.
+     * @param cell block as x*width + y
+     * @param parent the jump point the block was reached from, NONE for the start
+     * @param target block the search is looking for
+     * @param out filled with the blocks found, it needs room for four
+     * @return how many blocks were found
+     */
+    public int successors(int cell, int parent, int target, int[] out) {
+        int x = cell / width;
+        int y = cell % width;
+        int count = 0;
+        if(parent == NONE) {
+            count = add(jumpDown(x, y, 1, target), out, count);
+            count = add(jumpDown(x, y, -1, target), out, count);
+            count = add(jumpAcross(x, y, 1, target), out, count);
+            count = add(jumpAcross(x, y, -1, target), out, count);
+            return count;
+        }
+        int dx = Integer.signum(x - parent / width);
+        int dy = Integer.signum(y - parent % width);
+        if(dx != 0) {
+            //up or down: keep going, and look both ways
+            count = add(jumpDown(x, y, dx, target), out, count);
+            count = add(jumpAcross(x, y, 1, target), out, count);
+            count = add(jumpAcross(x, y, -1, target), out, count);
+        }
+        else {
+            //sideways: keep going, and turn only where the path could not have turned sooner
+            count = add(jumpAcross(x, y, dy, target), out, count);
+            for(int turn = -1; turn <= 1; turn += 2) {
+                if(open(x+turn, y) && !open(x+turn, y-dy))
+                    count = add(jumpDown(x, y, turn, target), out, count);
+            }
+        }
+        return count;
+    }
+
+    static int add(int cell, int[] out, int count) {
+        if(cell != NONE)
+            out[count++] = cell;
+        return count;
+    }
+
+    /**
+     * Jumps sideways along a row.
+     * @param x row of the block to jump from
+     * @param y column of the block to jump from
+     * @param dy 1 to the right, -1 to the left
+     * @param target block the search is looking for
+     * @return the first jump point or the target, NONE if the jump runs into a wall
+     */
+    public int jumpAcross(int x, int y, int dy, int target) {
+        while(true) {
+            y += dy;
+            if(!open(x, y))
+                return NONE;
+            int cell = x*width + y;
+            if(cell == target)
+                return cell;
+            if((open(x-1, y) && !open(x-1, y-dy)) || (open(x+1, y) && !open(x+1, y-dy)))
+                return cell;
+        }
+    }
+
+    /**
+     * Jumps up or down along a column.
+     * @param x row of the block to jump from
+     * @param y column of the block to jump from
+     * @param dx 1 down, -1 up
+     * @param target block the search is looking for
+     * @return the first jump point or the target, NONE if the jump runs into a wall
+     */
+    public int jumpDown(int x, int y, int dx, int target) {
+        while(true) {
+            x += dx;
+            if(!open(x, y))
+                return NONE;
+            int cell = x*width + y;
+            if(cell == target)
+                return cell;
+            if(jumpAcross(x, y, 1, target) != NONE || jumpAcross(x, y, -1, target) != NONE)
+                return cell;
+        }
+    }
+
+    /**
+     * Fills in the blocks between the jump points of a path.
+     * @param jumps the jump points of a path, in order
+     * @return every block of the path
+     */
+    public int[] walk(int[] jumps) {
+        int steps = 0;
+        for(int i = 1; i < jumps.length; i++)
+            steps += distance(jumps[i-1], jumps[i]);
+        int[] path = new int[steps + 1];
+        int n = 0;
+        path[n++] = jumps[0];
+        for(int i = 1; i < jumps.length; i++) {
+            int x = jumps[i-1] / width;
+            int y = jumps[i-1] % width;
+            int dx = Integer.signum(jumps[i] / width - x);
+            int dy = Integer.signum(jumps[i] % width - y);
+            while(x*width + y != jumps[i]) {
+                x += dx;
+                y += dy;
+                path[n++] = x*width + y;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Steps between two blocks of a straight jump, or the Manhattan distance of any two blocks.
+     * @param a block as x*width + y
+     * @param b block as x*width + y
+     * @return the number of steps
+     */
+    public int distance(int a, int b) {
+        return Math.abs(a / width - b / width) + Math.abs(a % width - b % width);
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Lifelong Planning A* answers the same question, the cheapest path between two blocks,
+ * again and again while the grid is edited in between. It is the search D* Lite keeps, with
+ * a robot that never moves: the cost to the target of every block it has settled is kept
+ * from one question to the next, and a new question only searches the blocks the edits since
+ * the last one made inconsistent. Grid.planner keeps one for each pair of blocks asked about lately,
+ * shared by every search on the grid, so only one thread asks a planner for a path at a time.
+ * @author Andrew C. Haynes
+ */
+public class LPAStar extends DStarLite {
+
+    /**
+     * Creates the planner for paths between two blocks. Nothing is searched until path is called.
+     * @param grid the grid to search
+     * @param start block the paths start at, as x*width + y
+     * @param target block the paths end at
+     */
+    public LPAStar(Grid grid, int start, int target) {
+        super(grid, start, target);
+    }
+
+    /**
+     * Finds the cheapest path, first repairing the search for the edits since the last path.
+     * @return the blocks of the path from start to target, or null if there is none
+     */
+    public synchronized int[] path() {
+        update();
+        if(!plan())
+            return null;
+        int[] path = new int[16];
+        int n = 0;
+        path[n++] = start;
+        for(int cell = start; cell != target; ) {
+            cell = next(cell);
+            //a path never comes back to a block, so it can not be longer than the grid
+            if(cell == NONE || n > (long)grid.length*width)
+                return null;
+            if(n == path.length)
+                path = java.util.Arrays.copyOf(path, n*2);
+            path[n++] = cell;
+        }
+        return java.util.Arrays.copyOf(path, n);
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * Lifelong Planning A* Search plans each leg before the robot moves, with a planner the grid
+ * keeps for the two blocks of the leg. Running the search again after a few blocks were edited
+ * only repairs what the edits changed, so the answer comes back almost at once.
+ * The robot walks the path to the object, then plans and walks the way home.
+ * Agents are walls to the planner.
+ * (Note: There are instances where no paths exist.)
+ * @author Andrew C. Haynes
+ */
+public class LPAStarSearch extends AnimatedSearch {
+
+    /**
+     * Instantiates the Lifelong Planning A* Search by connecting the robot agent to the
+     * search.
+     * @param agent Robot agent committing the search
+     */
+    public LPAStarSearch(Agent agent) {
+        super(agent, "Lifelong Planning A* Search");
+    }
+
+    /**
+     * Performs a Lifelong Planning A* Search from home to the object and back.
+     */
+    public void lpaSearch() {
+        this.start();
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * The blocks of a grid that searches look for before they start: home, the goal,
+ * the enemy agents and the boundary blocks the robot can enter the grid on. The
+ * Grid keeps them up to date as blocks change, so finding them does not scan the grid.
+ * @author Andrew C. Haynes
+ */
+public class Landmarks {
+
+    Grid grid;
+    public CellSet homes;
+    public CellSet goals;
+    //null when the grid was given its landmarks without being read, see MappedGrid
+    public CellSet agents;
+    //boundary blocks that are not an obstacle, agent or goal
+    public CellSet entries;
+
+    /**
+     * Indexes the blocks of a grid.
+     * @param grid the grid
+     * @param free true if every block of the grid is free, so only the boundary is indexed
+     */
+    Landmarks(Grid grid, boolean free) {
+        this.grid = grid;
+        homes = new CellSet();
+        goals = new CellSet();
+        agents = new CellSet();
+        entries = new CellSet();
+        if(free) {
+            for(int i = 0; i < grid.length; i++) {
+                if(i == 0 || i == grid.length-1) {
+                    for(int j = 0; j < grid.width; j++)
+                        entries.add(i*grid.width + j);
+                }
+                else if(grid.width > 0) {
+                    entries.add(i*grid.width);
+                    entries.add(i*grid.width + grid.width-1);
+                }
+            }
+        }
+        else {
+            for(int i = 0; i < grid.length; i++) {
+                for(int j = 0; j < grid.width; j++) {
+                    update(i, j, 0, grid.flags(i, j));
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the home, goal and entry blocks listed for a grid, without reading its blocks.
+     * The agents are not indexed.
+     * @param grid the grid
+     * @param homes the home blocks
+     * @param goals the goal blocks
+     * @param entries the boundary blocks that are not an obstacle, agent or goal
+     */
+    Landmarks(Grid grid, int[] homes, int[] goals, int[] entries) {
+        this.grid = grid;
+        this.homes = new CellSet();
+        this.goals = new CellSet();
+        this.entries = new CellSet();
+        for(int cell: homes)
+            this.homes.add(cell);
+        for(int cell: goals)
+            this.goals.add(cell);
+        for(int cell: entries)
+            this.entries.add(cell);
+    }
+
+    /**
+     * Determines if a block is on the boundary of the grid.
+     */
+    boolean isBoundary(int x, int y) {
+        return x == 0 || y == 0 || x == grid.length-1 || y == grid.width-1;
+    }
+
+    /**
+     * Moves a block between the sets when its flags change.
+     * @param x row of the block
+     * @param y column of the block
+     * @param before flags of the block before the change
+     * @param after flags of the block after the change
+     */
+    void update(int x, int y, int before, int after) {
+        int cell = x*grid.width + y;
+        if(((before ^ after) & Grid.HOME_BIT) != 0) {
+            if((after & Grid.HOME_BIT) != 0)
+                homes.add(cell);
+            else
+                homes.remove(cell);
+        }
+        if(((before ^ after) & Grid.GOAL_BIT) != 0) {
+            if((after & Grid.GOAL_BIT) != 0)
+                goals.add(cell);
+            else
+                goals.remove(cell);
+        }
+        if(agents != null && ((before ^ after) & Grid.AGENT_BIT) != 0) {
+            if((after & Grid.AGENT_BIT) != 0)
+                agents.add(cell);
+            else
+                agents.remove(cell);
+        }
+        if(isBoundary(x, y)) {
+            if((after & (Grid.OBSTACLE_BIT | Grid.AGENT_BIT | Grid.GOAL_BIT)) == 0)
+                entries.add(cell);
+            else
+                entries.remove(cell);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Local beam search. The search keeps the k blocks closest to the target, and each step
+ * replaces them with the k closest of all their neighbors that the beam has not held before.
+ * A beam of one block is a hill climb that never stands still, and a beam wider than any
+ * frontier is a best-first search, so k sets how much of the grid is searched.
+ *
+ * Only the states the beam has held are kept, each with the state it came from so a path can
+ * be followed back, and the blocks held are kept in a VisitedSet, which only allocates the tiles
+ * the beam passes through. Memory grows with k times the steps taken, not with the grid.
+ *
+ * The neighbors of the beam are found and scored on the threads of a ForkJoinPool, each thread
+ * taking a share of the beam. Each block of the beam has four slots for its neighbors, so
+ * no two threads write the same slot, and the k best are then picked in one pass. A step
+ * scores only 4k neighbors, so the split only pays off with idle cores to spare.
+ * Obstacles and agents are both walls, and the path found is not always a shortest one.
+ * @author Andrew C. Haynes
+ */
+public class LocalBeam {
+
+    //blocks kept in the beam when no width is given
+    public static final int BEAM_WIDTH = 32;
+    //blocks of the beam scored by each thread at least, so a beam of 32 is split in two
+    static final int SPLIT = 16;
+    //slot of a neighbor that is a wall or was held before, sorted after every real one
+    static final long EMPTY = Long.MAX_VALUE;
+
+    Grid grid;
+    int width;
+    ForkJoinPool pool;
+    int k;
+    int target;
+    //exact steps to the target when the grid is small enough to keep them
+    DistanceField field;
+    //every state the beam has held, its block and the state it came from
+    int[] cells;
+    int[] parents;
+    int numOfStates;
+    //blocks held by the beam so far
+    VisitedSet held;
+    //states of the current beam
+    int[] beam;
+    int size;
+    //score and slot of the neighbors of the beam, four slots for each block
+    long[] keys;
+    int[] successors;
+    //blocks whose neighbors were scored, and steps taken
+    int expanded;
+    int steps;
+
+    /**
+     * Creates the search for a grid on the common pool.
+     * @param grid the grid to search
+     * @param k number of blocks kept in the beam
+     */
+    public LocalBeam(Grid grid, int k) {
+        this(grid, k, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates the search for a grid.
+     * @param grid the grid to search
+     * @param k number of blocks kept in the beam
+     * @param pool the threads the neighbors are scored on
+     */
+    public LocalBeam(Grid grid, int k, ForkJoinPool pool) {
+        if(k < 1)
+            throw new IllegalArgumentException("Beam width must be at least 1: " + k);
+        this.grid = grid;
+        this.k = k;
+        this.pool = pool;
+        width = grid.width;
+        beam = new int[k];
+        keys = new long[4*k];
+        successors = new int[4*k];
+    }
+
+    /**
+     * Moves the beam from a block until it holds the target or runs out of blocks.
+     * @param from block the path starts at, as x*width + y
+     * @param target block the path ends at
+     * @return the blocks of the path from start to target, or null if the beam died out
+     */
+    public int[] search(int from, int target) {
+        this.target = target;
+        field = grid.distances(target);
+        cells = new int[Math.max(16, k*4)];
+        parents = new int[cells.length];
+        numOfStates = 0;
+        held = new VisitedSet(grid.length, width);
+        expanded = 0;
+        steps = 0;
+        held.add(from);
+        beam[0] = addState(from, ParentTable.NONE);
+        size = 1;
+        while(size > 0) {
+            for(int i = 0; i < size; i++) {
+                if(cells[beam[i]] == target)
+                    return path(beam[i]);
+            }
+            step();
+        }
+        return null;
+    }
+
+    /**
+     * Replaces the beam with the k best neighbors of its blocks.
+     */
+    void step() {
+        steps++;
+        expanded += size;
+        int slots = 4*size;
+        int chunks = Math.max(1, Math.min(pool.getParallelism()*4, size / SPLIT));
+        pool.invoke(new ParallelBFS.Chunks(0, chunks) {
+            void chunk(int c) {
+                score((int)((long)size*c/chunks), (int)((long)size*(c + 1)/chunks));
+            }
+        });
+        java.util.Arrays.sort(keys, 0, slots);
+        //a block reached from two states is kept once, from the one listed first
+        int n = 0;
+        int[] next = new int[k];
+        for(int i = 0; i < slots && n < k && keys[i] != EMPTY; i++) {
+            int slot = (int)keys[i];
+            int cell = successors[slot];
+            if(held.contains(cell))
+                continue;
+            held.add(cell);
+            next[n++] = addState(cell, beam[slot >>> 2]);
+        }
+        beam = next;
+        size = n;
+    }
+
+    /**
+     * Finds and scores the neighbors of part of the beam. Only reads the blocks held,
+     * and writes the slots of its own blocks.
+     * @param from first block of the beam to score
+     * @param to block of the beam after the last one
+     */
+    void score(int from, int to) {
+        //neighbors of the block being scored, one array for the whole part
+        int[] next = new int[8];
+        for(int i = from; i < to; i++) {
+            int cell = cells[beam[i]];
+            int x = cell / width;
+            int y = cell % width;
+            //DOWN, UP, RIGHT, LEFT
+            next[0] = x+1; next[1] = y;
+            next[2] = x-1; next[3] = y;
+            next[4] = x;   next[5] = y+1;
+            next[6] = x;   next[7] = y-1;
+            for(int j = 0; j < 8; j += 2) {
+                int slot = 4*i + (j >>> 1);
+                keys[slot] = EMPTY;
+                if(!grid.inBounds(next[j], next[j+1]) || grid.isObstacle(next[j], next[j+1]) || grid.isAgent(next[j], next[j+1]))
+                    continue;
+                int child = next[j]*width + next[j+1];
+                if(held.contains(child))
+                    continue;
+                successors[slot] = child;
+                //scores are not negative, so their bits sort like the scores do
+                keys[slot] = ((long)Float.floatToIntBits((float)heuristic(child)) << 32) | slot;
+            }
+        }
+    }
+
+    /**
+     * Keeps a state of the beam.
+     * @param cell block of the state
+     * @param parent state it came from, or ParentTable.NONE
+     * @return the place of the new state
+     */
+    int addState(int cell, int parent) {
+        if(numOfStates == cells.length) {
+            cells = java.util.Arrays.copyOf(cells, numOfStates*2);
+            parents = java.util.Arrays.copyOf(parents, numOfStates*2);
+        }
+        cells[numOfStates] = cell;
+        parents[numOfStates] = parent;
+        return numOfStates++;
+    }
+
+    /**
+     * Follows the states back from one that holds the target.
+     * @param state place of the state
+     * @return the blocks of the path from start to target
+     */
+    int[] path(int state) {
+        int[] back = new int[16];
+        int n = 0;
+        for(int s = state; s != ParentTable.NONE; s = parents[s]) {
+            if(n == back.length)
+                back = java.util.Arrays.copyOf(back, n*2);
+            back[n++] = cells[s];
+        }
+        return SearchEngine.reversed(java.util.Arrays.copyOf(back, n));
+    }
+
+    /**
+     * Distance from a block to the target, the heuristic of the hill climbing searches.
+     * @param cell block as x*width + y
+     * @return the exact steps when the grid keeps a distance field, the straight line distance otherwise
+     */
+    double heuristic(int cell) {
+        if(field != null)
+            return field.cost(cell);
+        int x = Math.abs(cell / width - target / width);
+        int y = Math.abs(cell % width - target % width);
+        return Math.sqrt((x*x)+(y*y));
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * Local Beam Search plans each leg before the robot moves. A beam of the blocks closest to the
+ * goal object, by the same distance the hill climbing searches use, steps toward it and keeps
+ * the best of all their neighbors, which are scored on the threads of the common pool. The
+ * robot walks the path the beam found to the object, then plans and walks the way home.
+ * Agents are walls to the search, and every step counts as one.
+ * (Note: The beam can die out in a dead end even when a path exists.)
+ * @author Andrew C. Haynes
+ */
+public class LocalBeamSearch extends AnimatedSearch {
+
+    /**
+     * Instantiates the Local Beam Search by connecting the robot agent to the
+     * search.
+     * @param agent Robot agent committing the search
+     */
+    public LocalBeamSearch(Agent agent) {
+        super(agent, "Local Beam Search");
+    }
+
+    /**
+     * Performs a Local Beam Search from home to the object and back.
+     */
+    public void beamSearch() {
+        this.start();
+    }
+}
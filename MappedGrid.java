@@ -0,0 +1,227 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+/**
+ * A grid backed by a memory-mapped file, for grids larger than the heap, up to
+ * Grid.MAX_BLOCKS blocks. The operating system pages in only the parts of the grid
+ * a search touches, and every JVM that opens the same file shares the same pages of
+ * the page cache.
+ *
+ * MAPPED GRID FILE FORMAT:
+ * "GRID" magic number, length and width as 4 byte big-endian ints,
+ * then one byte of Grid flags per block, row by row,
+ * then the home, goal and entry blocks as x*width + y: for each, the number of
+ * blocks and the blocks, as 4 byte big-endian ints.
+ *
+ * The blocks listed at the end are the landmarks of the grid, so a search can start
+ * without reading every block. Agents are not listed, and are found row by row when
+ * a search asks for one. Files without the list are still opened, and their
+ * landmarks are found by reading the whole grid the first time they are needed.
+ *
+ * The file is mapped read only. Traversed blocks and other changes made during a
+ * search are kept in a TiledGrid on the heap, so they stay in this JVM and never
+ * reach the file.
+ * @author Andrew C. Haynes
+ */
+public class MappedGrid extends Grid {
+
+    static final int MAGIC = 0x47524944;
+    static final int HEADER = 12;
+    //Each mapping covers 1GB of the file, since one mapping can not exceed 2GB
+    static final int CHUNK_BITS = 30;
+    static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    //Marks a block of the changes that has been changed since the file was mapped
+    static final int CHANGED_BIT = 128;
+
+    MappedByteBuffer[] chunks;
+    //Blocks changed since the file was mapped
+    TiledGrid changes;
+
+    MappedGrid(int len, int wid, MappedByteBuffer[] chunks) {
+        super(len, wid, null);
+        this.chunks = chunks;
+        changes = new TiledGrid(len, wid);
+    }
+
+    int flags(int x, int y) {
+        int changed = changes.flags(x, y);
+        if((changed & CHANGED_BIT) != 0)
+            return changed & ~CHANGED_BIT & 0xff;
+        long i = HEADER + (long)x*width + y;
+        return chunks[(int)(i >>> CHUNK_BITS)].get((int)(i & CHUNK_MASK));
+    }
+
+    void setFlags(int x, int y, int flags) {
+        changes.setFlags(x, y, flags | CHANGED_BIT);
+    }
+
+    /**
+     * Determines if a file is in the mapped grid file format.
+     * @param file file to check
+     * @return true if the file starts with the mapped grid magic number
+     */
+    public static boolean isMappedGrid(File file) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        }
+        catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Maps a grid file into memory without reading it onto the heap.
+     * @param file a file in the mapped grid file format
+     * @return the mapped grid
+     * @throws IOException if the file can not be mapped or does not follow the format
+     * @throws IllegalArgumentException if the grid has more than MAX_BLOCKS blocks
+     */
+    public static MappedGrid open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            while(header.hasRemaining() && channel.read(header) >= 0) {
+                //keep reading the header
+            }
+            header.flip();
+            if(header.remaining() < HEADER || header.getInt() != MAGIC)
+                throw new IOException("This file does not comply to the mapped grid file format.");
+            int len = header.getInt();
+            int wid = header.getInt();
+            long size = HEADER + (long)len*wid;
+            if(len < 0 || wid < 0 || channel.size() < size)
+                throw new IOException("This file does not comply to the mapped grid file format.");
+            //before mapping anything
+            blocks(len, wid);
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int)((size + CHUNK_MASK) >>> CHUNK_BITS)];
+            for(int i = 0; i < chunks.length; i++) {
+                long start = (long)i << CHUNK_BITS;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(1L << CHUNK_BITS, size - start));
+            }
+            MappedGrid grid = new MappedGrid(len, wid, chunks);
+            if(channel.size() > size) {
+                ByteBuffer listed = channel.map(FileChannel.MapMode.READ_ONLY, size, channel.size() - size);
+                try {
+                    int[] homes = readBlocks(listed, len, wid);
+                    int[] goals = readBlocks(listed, len, wid);
+                    int[] entries = readBlocks(listed, len, wid);
+                    grid.landmarks = new Landmarks(grid, homes, goals, entries);
+                }
+                catch (java.nio.BufferUnderflowException e) {
+                    throw new IOException("This file does not comply to the mapped grid file format.");
+                }
+            }
+            //the mapping stays valid after the channel is closed
+            return grid;
+        }
+    }
+
+    /**
+     * Reads one list of blocks from the end of a mapped grid file.
+     * @param listed the end of the file, after the blocks of the grid
+     * @param len length of the grid
+     * @param wid width of the grid
+     * @return the blocks of the list
+     * @throws IOException if a block is not on the grid
+     */
+    static int[] readBlocks(ByteBuffer listed, int len, int wid) throws IOException {
+        int count = listed.getInt();
+        if(count < 0 || count > listed.remaining() / 4)
+            throw new IOException("This file does not comply to the mapped grid file format.");
+        int[] blocks = new int[count];
+        for(int i = 0; i < count; i++) {
+            blocks[i] = listed.getInt();
+            if(blocks[i] < 0 || blocks[i] >= len*wid)
+                throw new IOException("This file does not comply to the mapped grid file format.");
+        }
+        return blocks;
+    }
+
+    /**
+     * Writes one list of blocks at the end of a mapped grid file.
+     * @param out the mapped grid file
+     * @param blocks the blocks to list
+     * @throws IOException if the file can not be written
+     */
+    static void writeBlocks(DataOutputStream out, CellSet blocks) throws IOException {
+        out.writeInt(blocks.size());
+        for(int i = 0; i < blocks.size(); i++)
+            out.writeInt(blocks.get(i));
+    }
+
+    /**
+     * Converts a grid file in the text grid file format into the mapped grid file format,
+     * reading and writing one block at a time and listing the landmarks at the end.
+     * @param textGrid file in the grid file format
+     * @param mappedGrid file to write in the mapped grid file format
+     * @throws IOException if the text grid can not be read, does not follow the format or has terrain costs
+     * @throws IllegalArgumentException if the grid has more than MAX_BLOCKS blocks
+     */
+    public static void convert(File textGrid, File mappedGrid) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(textGrid));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(mappedGrid)))) {
+            if(!"BEGIN".equals(reader.readLine()))
+                throw new IOException("This file does not comply to the grid file format.");
+            int len = Integer.parseInt(reader.readLine().trim());
+            int wid = Integer.parseInt(reader.readLine().trim());
+            blocks(len, wid);
+            out.writeInt(MAGIC);
+            out.writeInt(len);
+            out.writeInt(wid);
+            //a one block grid turns a cell code into its flags
+            Grid block = new Grid(1, 1);
+            CellSet homes = new CellSet();
+            CellSet goals = new CellSet();
+            CellSet entries = new CellSet();
+            for(int i = 0; i < len*wid; i++) {
+                String line = reader.readLine();
+                if(line == null)
+                    throw new IOException("This file does not comply to the grid file format.");
+                int code = Integer.parseInt(line.trim());
+                if(code < OBSTACLE || code > FREE)
+                    throw new IOException("This file does not comply to the grid file format.");
+                block.setFlags(0, 0, 0);
+                block.setCell(0, 0, code);
+                int flags = block.flags(0, 0);
+                out.writeByte(flags);
+                //the same blocks Landmarks would index
+                if((flags & HOME_BIT) != 0)
+                    homes.add(i);
+                if((flags & GOAL_BIT) != 0)
+                    goals.add(i);
+                int x = i / wid;
+                int y = i % wid;
+                boolean boundary = x == 0 || y == 0 || x == len-1 || y == wid-1;
+                if(boundary && (flags & (OBSTACLE_BIT | AGENT_BIT | GOAL_BIT)) == 0)
+                    entries.add(i);
+            }
+            if(!"END".equals(reader.readLine()))
+                throw new IOException("This file does not comply to the grid file format.");
+            //mapped grids have one byte of flags per block and no room for costs
+            if("COSTS".equals(reader.readLine()))
+                throw new IOException("Grids with terrain costs can not be converted to the mapped grid file format.");
+            writeBlocks(out, homes);
+            writeBlocks(out, goals);
+            writeBlocks(out, entries);
+        }
+        catch (NumberFormatException | NullPointerException e) {
+            throw new IOException("This file does not comply to the grid file format.");
+        }
+    }
+
+    /**
+     * Converts a text grid file into a mapped grid file.
+     * Usage: java MappedGrid textGridFile mappedGridFile
+     * @param args the text grid file and the mapped grid file to write
+     * @throws IOException if the conversion fails
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2) {
+            System.err.println("Usage: java MappedGrid textGridFile mappedGridFile");
+            return;
+        }
+        convert(new File(args[0]), new File(args[1]));
+    }
+}
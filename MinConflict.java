@@ -11,6 +11,8 @@ import javax.swing.JOptionPane;
 public class MinConflict extends Thread {
     
     Agent agent;
+    //robot position and block costs of this search, the grid is left alone
+    SearchState state;
     Block root;
     LinkedList<Block> neighbors;
     //for space, the max number of blocks is 4
@@ -26,6 +28,7 @@ public class MinConflict extends Thread {
      */
     public MinConflict(Agent agent) {
         this.agent = agent;
+        state = new SearchState(agent.model, agent.posX, agent.posY);
         neighbors = new LinkedList<>();
         numOfBlocks = 0;
     }
@@ -43,8 +46,8 @@ public class MinConflict extends Thread {
      */
     public void run() { 
         Block currentBlock = root;
-        agent.posX = root.xPos;
-        agent.posY = root.yPos;
+        state.posX = root.xPos;
+        state.posY = root.yPos;
         boolean homeSearch = false;
         while(true) {
             try {
@@ -54,7 +57,7 @@ public class MinConflict extends Thread {
                     homeSearch = true;
                     clearStateCheckedBlocks();
                 }
-                if(currentBlock.home == 1 && homeSearch == true) {
+                if(currentBlock.isBlockHome() == 1 && homeSearch == true) {
                     JOptionPane.showMessageDialog(null, 
                             "ROBOT retrieved object and went back home.\n\nMin-Conflict Search Results:" 
                             + "\nAllowed Lifetime Steps: " + (agent.lifetime) + agent.performance() + "\nNumber of Blocks Used: " + numOfBlocks);
@@ -75,7 +78,7 @@ public class MinConflict extends Thread {
                     return;
                 }
                 clearCurrentSpot();
-                currentBlock.stateChecked = 1;
+                state.setStateChecked(currentBlock, 1);
                 numOfBlocks++;
                 if(homeSearch == false) {
                     agent.stepsToObject++;
@@ -104,16 +107,9 @@ public class MinConflict extends Thread {
      * Finds the home block in the grid and references it to the root of our tree.
      */
     public void findRoot() {
-        int a = this.agent.length;
-        int b = this.agent.width;
-        
-        for(int i = 0; i < a; i++) {
-            for(int j = 0; j < b; j++) {
-                if(this.agent.board[i][j].home == 1) {
-                    root = this.agent.board[i][j];
-                }
-            }
-        }
+        int home = agent.model.find(Grid.HOME);
+        if(home >= 0)
+            root = this.agent.board[home / agent.width][home % agent.width];
     }
     
     /**
@@ -136,39 +132,39 @@ public class MinConflict extends Thread {
      */
     public void grabNeighbors(){
         //DOWN
-        if(agent.posX+1 < agent.length) {
-            if(this.agent.board[agent.posX+1][agent.posY].stateChecked == 0
-               && this.agent.board[agent.posX+1][agent.posY].obstacle == 0
-               && this.agent.board[agent.posX+1][agent.posY].agent == 0) {
+        if(state.posX+1 < agent.length) {
+            if(state.getStateChecked(this.agent.board[state.posX+1][state.posY]) == 0
+               && this.agent.board[state.posX+1][state.posY].isBlockObstacle() == 0
+               && this.agent.board[state.posX+1][state.posY].isBlockAgent() == 0) {
                 //add to queue
-                neighbors.addFirst(this.agent.board[agent.posX+1][agent.posY]);
+                neighbors.addFirst(this.agent.board[state.posX+1][state.posY]);
             }
         }
         //UP
-        if(agent.posX-1 >= 0) {
-            if(this.agent.board[agent.posX-1][agent.posY].stateChecked == 0
-               && this.agent.board[agent.posX-1][agent.posY].obstacle == 0
-               && this.agent.board[agent.posX-1][agent.posY].agent == 0) {
+        if(state.posX-1 >= 0) {
+            if(state.getStateChecked(this.agent.board[state.posX-1][state.posY]) == 0
+               && this.agent.board[state.posX-1][state.posY].isBlockObstacle() == 0
+               && this.agent.board[state.posX-1][state.posY].isBlockAgent() == 0) {
                 //add to queue
-                neighbors.addFirst(this.agent.board[agent.posX-1][agent.posY]);
+                neighbors.addFirst(this.agent.board[state.posX-1][state.posY]);
             }
         }
         //RIGHT
-        if(agent.posY+1 < agent.width) {
-            if(this.agent.board[agent.posX][agent.posY+1].stateChecked == 0
-               && this.agent.board[agent.posX][agent.posY+1].obstacle == 0
-               && this.agent.board[agent.posX][agent.posY+1].agent == 0) {
+        if(state.posY+1 < agent.width) {
+            if(state.getStateChecked(this.agent.board[state.posX][state.posY+1]) == 0
+               && this.agent.board[state.posX][state.posY+1].isBlockObstacle() == 0
+               && this.agent.board[state.posX][state.posY+1].isBlockAgent() == 0) {
                 //add to queue
-                neighbors.addFirst(this.agent.board[agent.posX][agent.posY+1]);
+                neighbors.addFirst(this.agent.board[state.posX][state.posY+1]);
             }
         }
         //LEFT
-        if(agent.posY-1 >= 0) {
-            if(this.agent.board[agent.posX][agent.posY-1].stateChecked == 0
-               && this.agent.board[agent.posX][agent.posY-1].obstacle == 0
-               && this.agent.board[agent.posX][agent.posY-1].agent == 0) {
+        if(state.posY-1 >= 0) {
+            if(state.getStateChecked(this.agent.board[state.posX][state.posY-1]) == 0
+               && this.agent.board[state.posX][state.posY-1].isBlockObstacle() == 0
+               && this.agent.board[state.posX][state.posY-1].isBlockAgent() == 0) {
                 //add to queue
-                neighbors.addFirst(this.agent.board[agent.posX][agent.posY-1]);
+                neighbors.addFirst(this.agent.board[state.posX][state.posY-1]);
             }
         }
     }
@@ -183,8 +179,8 @@ public class MinConflict extends Thread {
         Random randSearch = new Random();
         int move = randSearch.nextInt(((size))+0); //generate a number between 0 - 3
         temp = neighbors.get(move);
-        agent.posX = temp.xPos;
-        agent.posY = temp.yPos;
+        state.posX = temp.xPos;
+        state.posY = temp.yPos;
         //clear neighbors after selecting next node
         neighbors.clear();
         return temp;
@@ -195,14 +191,14 @@ public class MinConflict extends Thread {
      * This also helps the coloring of the grid. 
      */
     public void traversingBlocks() {
-        this.agent.board[agent.posX][agent.posY].iAmHere = true;
+        this.agent.board[state.posX][state.posY].iAmHere = true;
         if(agent.hasObject == 1) {
-            agent.board[agent.posX][agent.posY].setHomeTraversed();
-            agent.board[agent.posX][agent.posY].repaint();
+            agent.board[state.posX][state.posY].setHomeTraversed();
+            agent.board[state.posX][state.posY].repaint();
         }
         else {
-            agent.board[agent.posX][agent.posY].setTraversed();
-            agent.board[agent.posX][agent.posY].repaint();
+            agent.board[state.posX][state.posY].setTraversed();
+            agent.board[state.posX][state.posY].repaint();
         }
     }
     
@@ -210,11 +206,7 @@ public class MinConflict extends Thread {
      * Clears the state check variable on all blocks in the grid.
      */
     public void clearStateCheckedBlocks() {
-        for(int i = 0; i < agent.length; i++) {
-            for(int j = 0; j < agent.width; j++) {
-                agent.board[i][j].stateChecked = 0;
-            }
-        }
+        state.clearStateChecked();
     }
     
     /**
@@ -0,0 +1,333 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Breadth-First Search that expands each level of the frontier across the threads of a
+ * ForkJoinPool. The visited blocks are one bit per block, like a BitBoard, and each level
+ * is expanded one of two ways:
+ *
+ * Top-down, the blocks of the frontier are split between the threads and each one claims
+ * the unvisited neighbors of its blocks. A block is claimed by setting its visited bit with
+ * a compare and swap, so a block reached from two sides is only added to the next level once.
+ *
+ * Bottom-up, the rows of the grid are split between the threads and each one finds the
+ * unvisited blocks of its rows that are next to the frontier, 64 blocks at a time with the
+ * shifts of BitBoard.expand. No two threads write the same row, so nothing has to be claimed.
+ *
+ * Top-down only touches the blocks of the frontier but pays for every neighbor it claims,
+ * and bottom-up pays for every word of the rows the frontier spans however few blocks it has.
+ * Each level is expanded whichever way costs less for its size.
+ * Obstacles are walls, and agents are reached like any other block.
+ * @author Andrew C. Haynes
+ */
+public class ParallelBFS {
+
+    //fewer blocks or rows than this are not split between threads
+    static final int SPLIT = 2048;
+    //a neighbor claimed top-down costs about as much as this many words swept bottom-up
+    static final int CLAIM_COST = 16;
+
+    Grid grid;
+    int length;
+    int width;
+    ForkJoinPool pool;
+    BitBoard open;
+    //one bit per block, set once a block has been reached
+    AtomicLongArray visited;
+    //blocks of the current level, and the first and last rows they are on
+    int[] frontier;
+    int size;
+    int minRow;
+    int maxRow;
+    //the current level as bits, kept up to date only while levels are expanded bottom-up
+    BitBoard frontierBits;
+    BitBoard nextBits;
+    boolean bitsCurrent;
+    //levels expanded each way
+    int topDown;
+    int bottomUp;
+
+    /**
+     * Creates the search for a grid on the common pool.
+     * @param grid the grid to search
+     */
+    public ParallelBFS(Grid grid) {
+        this(grid, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates the search for a grid.
+     * @param grid the grid to search
+     * @param pool the threads the levels are expanded on
+     */
+    public ParallelBFS(Grid grid, ForkJoinPool pool) {
+        this.grid = grid;
+        this.pool = pool;
+        length = grid.length;
+        width = grid.width;
+        open = new BitBoard(length, width);
+        int chunks = (int)Math.max(1, Math.min(pool.getParallelism()*4, (long)length*width / (SPLIT*64)));
+        pool.invoke(new Chunks(0, chunks) {
+            void chunk(int c) {
+                //no two chunks share a row, so no two write the same word
+                for(int x = (int)((long)length*c/chunks); x < (int)((long)length*(c + 1)/chunks); x++) {
+                    for(int y = 0; y < width; y++) {
+                        if(!grid.isObstacle(x, y))
+                            open.set(x, y);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Starts a new search. The start block is the first level.
+     * @param from block the search starts at, as x*width + y
+     */
+    public void start(int from) {
+        visited = new AtomicLongArray(open.bits.length);
+        claim(from);
+        frontier = new int[]{from};
+        size = 1;
+        minRow = from / width;
+        maxRow = minRow;
+        bitsCurrent = false;
+        topDown = 0;
+        bottomUp = 0;
+    }
+
+    /**
+     * Replaces the frontier with the next level, the blocks next to it that were not reached yet.
+     * @return false once the frontier is empty and the search is over
+     */
+    public boolean expand() {
+        if(size == 0)
+            return false;
+        //words bottom-up would sweep, the frontier's rows and the rows either side
+        long sweep = (long)(Math.min(maxRow + 1, length - 1) - Math.max(minRow - 1, 0) + 1)*open.words;
+        if((long)size*CLAIM_COST > sweep)
+            bottomUpLevel();
+        else
+            topDownLevel();
+        return size > 0;
+    }
+
+    /**
+     * Expands the frontier block by block, splitting its blocks between the threads.
+     */
+    void topDownLevel() {
+        topDown++;
+        bitsCurrent = false;
+        int chunks = Math.max(1, Math.min(pool.getParallelism()*4, size / SPLIT));
+        int[][] found = new int[chunks][];
+        int[] counts = new int[chunks];
+        pool.invoke(new Chunks(0, chunks) {
+            void chunk(int c) {
+                int from = (int)((long)size*c/chunks);
+                int to = (int)((long)size*(c + 1)/chunks);
+                int[] out = new int[Math.max(16, (to - from)*2)];
+                int n = 0;
+                //neighbors of the block being expanded, one array for the whole chunk
+                int[] next = new int[8];
+                for(int i = from; i < to; i++) {
+                    int x = frontier[i] / width;
+                    int y = frontier[i] % width;
+                    //DOWN, UP, RIGHT, LEFT
+                    next[0] = x+1; next[1] = y;
+                    next[2] = x-1; next[3] = y;
+                    next[4] = x;   next[5] = y+1;
+                    next[6] = x;   next[7] = y-1;
+                    for(int j = 0; j < 8; j += 2) {
+                        if(!grid.inBounds(next[j], next[j+1]) || !open.get(next[j], next[j+1]))
+                            continue;
+                        int child = next[j]*width + next[j+1];
+                        if(!claim(child))
+                            continue;
+                        if(n == out.length)
+                            out = java.util.Arrays.copyOf(out, n*2);
+                        out[n++] = child;
+                    }
+                }
+                found[c] = out;
+                counts[c] = n;
+            }
+        });
+        gather(found, counts);
+    }
+
+    /**
+     * Expands the frontier 64 blocks at a time, splitting the rows it can reach between the threads.
+     */
+    void bottomUpLevel() {
+        bottomUp++;
+        if(frontierBits == null) {
+            frontierBits = new BitBoard(length, width);
+            nextBits = new BitBoard(length, width);
+        }
+        int first = Math.max(minRow - 1, 0);
+        int last = Math.min(maxRow + 1, length - 1);
+        if(!bitsCurrent) {
+            frontierBits.clear();
+            for(int i = 0; i < size; i++)
+                frontierBits.set(frontier[i] / width, frontier[i] % width);
+        }
+        int chunks = Math.max(1, Math.min(pool.getParallelism()*4, (last - first + 1)*open.words / SPLIT));
+        int[][] found = new int[chunks][];
+        int[] counts = new int[chunks];
+        int words = open.words;
+        pool.invoke(new Chunks(0, chunks) {
+            void chunk(int c) {
+                int from = first + (int)((long)(last - first + 1)*c/chunks);
+                int to = first + (int)((long)(last - first + 1)*(c + 1)/chunks);
+                int[] out = new int[16];
+                int n = 0;
+                for(int x = from; x < to; x++) {
+                    for(int w = 0; w < words; w++) {
+                        int i = x*words + w;
+                        long bits = expandWord(x, w) & ~visited.get(i);
+                        nextBits.bits[i] = bits;
+                        if(bits == 0)
+                            continue;
+                        //only this thread writes the words of these rows
+                        visited.set(i, visited.get(i) | bits);
+                        while(bits != 0) {
+                            if(n == out.length)
+                                out = java.util.Arrays.copyOf(out, n*2);
+                            out[n++] = x*width + (w << 6) + Long.numberOfTrailingZeros(bits);
+                            bits &= bits - 1;
+                        }
+                    }
+                }
+                found[c] = out;
+                counts[c] = n;
+            }
+        });
+        //the old frontier's rows are outside the next sweep if the frontier moved on
+        for(int x = first; x <= last; x++)
+            java.util.Arrays.fill(frontierBits.bits, x*words, (x + 1)*words, 0L);
+        BitBoard swap = frontierBits;
+        frontierBits = nextBits;
+        nextBits = swap;
+        gather(found, counts);
+        bitsCurrent = true;
+    }
+
+    /**
+     * Neighbors of the frontier in one word of a row that a robot can step on,
+     * the same shifts as BitBoard.expand.
+     * @param x row
+     * @param w word of the row
+     * @return bits of the blocks next to the frontier
+     */
+    long expandWord(int x, int w) {
+        int words = open.words;
+        long[] src = frontierBits.bits;
+        int i = x*words + w;
+        long s = src[i];
+        long side = (s << 1) | (s >>> 1);
+        if(w > 0)
+            side |= src[i-1] >>> 63;
+        if(w < words - 1)
+            side |= src[i+1] << 63;
+        long vertical = 0;
+        if(x > 0)
+            vertical |= src[i-words];
+        if(x < length - 1)
+            vertical |= src[i+words];
+        return (side | vertical) & open.bits[i];
+    }
+
+    /**
+     * Joins the blocks each thread found into the new frontier.
+     * @param found blocks found by each chunk
+     * @param counts number of blocks found by each chunk
+     */
+    void gather(int[][] found, int[] counts) {
+        int total = 0;
+        for(int count: counts)
+            total += count;
+        int[] next = frontier.length >= total ? frontier : new int[Math.max(total, frontier.length*2)];
+        int n = 0;
+        minRow = length;
+        maxRow = -1;
+        for(int c = 0; c < found.length; c++) {
+            for(int i = 0; i < counts[c]; i++) {
+                int x = found[c][i] / width;
+                if(x < minRow)
+                    minRow = x;
+                if(x > maxRow)
+                    maxRow = x;
+            }
+            System.arraycopy(found[c], 0, next, n, counts[c]);
+            n += counts[c];
+        }
+        frontier = next;
+        size = total;
+    }
+
+    /**
+     * Sets the visited bit of a block.
+     * @param cell block as x*width + y
+     * @return true if this call set it, false if the block was already visited
+     */
+    boolean claim(int cell) {
+        int x = cell / width;
+        int y = cell % width;
+        int i = x*open.words + (y >>> 6);
+        long bit = 1L << y;
+        while(true) {
+            long word = visited.get(i);
+            if((word & bit) != 0)
+                return false;
+            if(visited.compareAndSet(i, word, word | bit))
+                return true;
+        }
+    }
+
+    /**
+     * Determines if a block has been reached.
+     * @param cell block as x*width + y
+     * @return true if the block is on a level found so far
+     */
+    public boolean isVisited(int cell) {
+        int x = cell / width;
+        int y = cell % width;
+        return (visited.get(x*open.words + (y >>> 6)) & (1L << y)) != 0;
+    }
+
+    /**
+     * Runs a number of chunks of a level on the threads of the pool. Nothing in it belongs
+     * to one search, so the other searches that split their work between threads use it too.
+     */
+    static abstract class Chunks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        int from;
+        int to;
+
+        Chunks(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        abstract void chunk(int c);
+
+        protected void compute() {
+            if(to - from == 1) {
+                chunk(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            Chunks outer = this;
+            invokeAll(new Chunks(from, mid) {
+                void chunk(int c) {
+                    outer.chunk(c);
+                }
+            }, new Chunks(mid, to) {
+                void chunk(int c) {
+                    outer.chunk(c);
+                }
+            });
+        }
+    }
+}
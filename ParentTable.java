@@ -0,0 +1,87 @@
+/**
+ * The block each block was reached from during a search, so the path to any reached block
+ * can be followed back to the start. Like a CostTable, the links are kept in 64x64 tiles
+ * that are only allocated once a block in them is reached.
+ * @author Andrew C. Haynes
+ */
+public class ParentTable {
+
+    public static final int NONE = -1;
+
+    int width;
+    int tilesAcross;
+    int[][] tiles;
+
+    /**
+     * Creates a table where no block has a parent.
+     * @param len length of the grid
+     * @param wid width of the grid
+     */
+    public ParentTable(int len, int wid) {
+        width = wid;
+        tilesAcross = (wid + TiledGrid.TILE_MASK) >>> TiledGrid.TILE_BITS;
+        int tilesDown = (len + TiledGrid.TILE_MASK) >>> TiledGrid.TILE_BITS;
+        tiles = new int[tilesDown*tilesAcross][];
+    }
+
+    /**
+     * Makes room for more rows of blocks, keeping the parents already in the table.
+     * @param len new length of the grid, at least the old one
+     */
+    public void grow(int len) {
+        int tilesDown = (len + TiledGrid.TILE_MASK) >>> TiledGrid.TILE_BITS;
+        if(tilesDown*tilesAcross > tiles.length)
+            tiles = java.util.Arrays.copyOf(tiles, tilesDown*tilesAcross);
+    }
+
+    /**
+     * Returns the block a block was reached from.
+     * @param cell block as x*width + y
+     * @return the parent block, or NONE
+     */
+    public int get(int cell) {
+        int x = cell / width;
+        int y = cell % width;
+        int[] tile = tiles[(x >>> TiledGrid.TILE_BITS)*tilesAcross + (y >>> TiledGrid.TILE_BITS)];
+        if(tile == null)
+            return NONE;
+        //stored plus one, so a new tile starts out with no parents
+        return tile[((x & TiledGrid.TILE_MASK) << TiledGrid.TILE_BITS) | (y & TiledGrid.TILE_MASK)] - 1;
+    }
+
+    /**
+     * Sets the block a block was reached from.
+     * @param cell block as x*width + y
+     * @param parent the parent block
+     */
+    public void set(int cell, int parent) {
+        int x = cell / width;
+        int y = cell % width;
+        int t = (x >>> TiledGrid.TILE_BITS)*tilesAcross + (y >>> TiledGrid.TILE_BITS);
+        int[] tile = tiles[t];
+        if(tile == null) {
+            tile = new int[TiledGrid.TILE_SIZE*TiledGrid.TILE_SIZE];
+            tiles[t] = tile;
+        }
+        tile[((x & TiledGrid.TILE_MASK) << TiledGrid.TILE_BITS) | (y & TiledGrid.TILE_MASK)] = parent + 1;
+    }
+
+    /**
+     * Follows the parents back from a block to the start of the search.
+     * @param from block the search started at
+     * @param to a block the search reached
+     * @return the blocks of the path from the start to the block
+     */
+    public int[] path(int from, int to) {
+        int steps = 0;
+        for(int cell = to; cell != from; cell = get(cell))
+            steps++;
+        int[] path = new int[steps + 1];
+        int cell = to;
+        for(int i = steps; i >= 0; i--) {
+            path[i] = cell;
+            cell = get(cell);
+        }
+        return path;
+    }
+}
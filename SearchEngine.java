@@ -0,0 +1,1322 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+/**
+ * Headless entry point for the search algorithms. The engine runs the same searches
+ * the robot agent offers in the simulator, but against a Grid model instead of
+ * a board of Block panels, and reports a SearchResult instead of a pop-up.
+ * Nothing here touches AWT or Swing, so it can run in batch jobs and on servers.
+ *
+ * The robot walks from one examined block to the next, so moving between two blocks
+ * costs the Manhattan distance between them, the same way the animated searches count steps.
+ * @author Andrew C. Haynes
+ */
+public class SearchEngine {
+
+    //Search options, same names as the ones offered by the simulator
+    public static final String[] SEARCH_TYPES = new String[]{"Random Search",
+        "Breadth-First Search [Tree Based]",
+        "Breadth-First Search [Graph Based]",
+        "Depth-First Search [Tree Based]",
+        "Depth-First Search [Graph Based]",
+        "Hill-Climbing Search",
+        "Random Restart Hill-Climbing Search",
+        "Simulated Annealing Search",
+        "Local Beam Search",
+        "Iterative Deepening Search",
+        "A* Search",
+        "A* Search [Bucket Queue]",
+        "Jump Point Search",
+        "Bidirectional Search",
+        "Hierarchical A* Search",
+        "D* Lite Search",
+        "Lifelong Planning A* Search",
+        "Iterative Deepening A* Search"};
+
+    //a leg of the search is still going
+    static final int RUNNING = -1;
+
+    Grid grid;
+    int length;
+    int width;
+    int lifetime;
+    Random rand;
+
+    //Performance Measure parameters
+    int stepsToObject;
+    int stepsHome;
+    int totalSteps;
+    int hasObject;
+    int numOfBlocks;
+    int maxBlocks;
+    //home, goal and current location as cell indexes (x*width + y)
+    int home;
+    int goal;
+    int pos;
+    //blocks the robot has traversed before and after picking up the object,
+    //kept in tiles so that only the part of the grid the robot visits costs memory
+    TiledGrid marks;
+    //blocks touched for the performance measure
+    int touched;
+    //steps to the target of the current leg, null if the grid is too large to keep them
+    DistanceField field;
+    //blocks of the path the last leg found, from its start to its target
+    int[] path;
+    //blocks checked by the graph based and depth-limited legs, cleared in constant time
+    //so repeated legs and deepening iterations never sweep the whole grid
+    VisitedSet checked;
+    //grow the BFS and IDS frontiers with bitboards, a whole row of blocks at a time
+    boolean bitboards;
+    //walk the path to the goal back home instead of searching again
+    boolean reusePath;
+    //expand the levels of the graph based BFS on all cores
+    boolean parallel;
+    //threads of the A* and random restart searches, 1 runs them the one-thread way
+    int threads = 1;
+    //cooling schedule of the simulated annealing search
+    double temperature = AnnealingSchedule.START_TEMPERATURE;
+    double cooling = AnnealingSchedule.COOLING_RATE;
+    //blocks kept by the local beam search
+    int beamWidth = LocalBeam.BEAM_WIDTH;
+
+    /**
+     * Creates a search engine for the grid.
+     * @param grid the grid to search
+     */
+    public SearchEngine(Grid grid) {
+        this(grid, new Random());
+    }
+
+    /**
+     * Creates a search engine for the grid with its own random number generator,
+     * so that random and random restart searches can be repeated.
+     * @param grid the grid to search
+     * @param rand random number generator for the random searches
+     */
+    public SearchEngine(Grid grid, Random rand) {
+        this.grid = grid;
+        this.rand = rand;
+        length = grid.length;
+        width = grid.width;
+        lifetime = (int)Math.min(Integer.MAX_VALUE, (long)length*width*50);
+    }
+
+    /**
+     * Turns the bitboard mode of the graph based Breadth-First Search and the
+     * Iterative Deepening Search on or off. In bitboard mode a whole frontier is expanded
+     * at once, so every block reached costs the robot one step instead of the walk between blocks.
+     * @param on true to use bitboards
+     */
+    public void setBitboardMode(boolean on) {
+        bitboards = on;
+    }
+
+    /**
+     * Turns the parallel mode of the graph based Breadth-First Search on or off. In parallel
+     * mode each level is expanded across the threads of the common ForkJoinPool, and like in
+     * bitboard mode, every block reached costs the robot one step.
+     * @param on true to expand levels in parallel
+     */
+    public void setParallelMode(boolean on) {
+        parallel = on;
+    }
+
+    /**
+     * Sets the cooling schedule of the Simulated Annealing Search. The schedule of each leg
+     * is seeded from the engine's random number generator, so a seeded engine repeats its walks.
+     * @param start temperature at the first step and after the schedule is frozen
+     * @param rate number between 0 and 1 the temperature is multiplied by after every step
+     */
+    public void setCoolingSchedule(double start, double rate) {
+        temperature = start;
+        cooling = rate;
+    }
+
+    /**
+     * Sets how many threads the A* Search and the Random Restart Hill-Climbing Search run on.
+     * With more than one, the A* Search is a HashDistributedAStar where every block is owned
+     * by one of the threads, and the climbs to the goal of the random restart search run that
+     * many at a time in a ConcurrentClimb. Either way the robot walks the path once it is found,
+     * and every block the threads looked at counts as a block used.
+     * @param count number of threads, 1 for the one-thread searches
+     */
+    public void setThreads(int count) {
+        threads = Math.max(1, count);
+    }
+
+    /**
+     * Sets how many blocks the Local Beam Search keeps. One block climbs like the hill
+     * climbing searches, and the wider the beam the more of the grid is searched.
+     * @param k number of blocks in the beam
+     */
+    public void setBeamWidth(int k) {
+        beamWidth = Math.max(1, k);
+    }
+
+    /**
+     * Turns path reuse on or off. With path reuse, the robot walks home along the path the
+     * search found to the goal, backwards and with its detours cut short, instead of searching
+     * again from the goal. The way home is only searched for if the obstacles or agents moved
+     * while the robot was out, or if the search kept no path.
+     * @param on true to reuse the path to the goal
+     */
+    public void setPathReuseMode(boolean on) {
+        reusePath = on;
+    }
+
+    /**
+     * Runs a search from the home block to the goal block and back home.
+     * If the grid has no home block, the robot starts on a random free boundary block.
+     * @param searchType one of SEARCH_TYPES
+     * @return the performance of the robot during the search
+     */
+    public SearchResult search(Object searchType) {
+        stepsToObject = 0;
+        stepsHome = 0;
+        totalSteps = 0;
+        hasObject = 0;
+        numOfBlocks = 0;
+        maxBlocks = 0;
+        marks = new TiledGrid(length, width);
+        touched = 0;
+        path = null;
+        if(checked == null)
+            checked = new VisitedSet(length, width);
+        home = grid.find(Grid.HOME);
+        goal = grid.find(Grid.GOAL);
+        if(home < 0)
+            home = startPosition();
+        pos = home;
+        if(home >= 0)
+            mark(home);
+        int status;
+        if(goal < 0 || home < 0 || !reachable(searchType)) {
+            status = SearchResult.NO_PATH;
+        }
+        else if(searchType.equals("Random Search")) {
+            status = randomSearch();
+        }
+        else {
+            int version = grid.version;
+            status = leg(searchType, home, goal);
+            if(status == SearchResult.SUCCESS) {
+                hasObject = 1;
+                if(reusePath && version == grid.version && path != null
+                        && path[0] == home && path[path.length - 1] == goal)
+                    status = walk(shortcut(reversed(path)));
+                else
+                    status = leg(searchType, goal, home);
+            }
+        }
+        return result(searchType, status);
+    }
+
+    /**
+     * Determines if the goal can be reached at all, so a search that can only fail is not run.
+     * Random restarts can start from any entry/exit block, so that search only needs
+     * one of them to reach the goal.
+     * @param searchType one of SEARCH_TYPES
+     * @return false if no path joins the goal to where the robot can start
+     */
+    boolean reachable(Object searchType) {
+        Components parts = grid.components();
+        if(searchType.equals("Random Restart Hill-Climbing Search"))
+            return parts.connected(goal, home) || parts.connected(goal, grid.landmarks().entries);
+        return parts.connected(home, goal);
+    }
+
+    /**
+     * Runs one leg of the search, either home to goal or goal to home.
+     * @param searchType one of SEARCH_TYPES
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int leg(Object searchType, int from, int target) {
+        if(searchType.equals("Breadth-First Search [Tree Based]"))
+            return frontierLeg(from, target, true, false);
+        else if(searchType.equals("Breadth-First Search [Graph Based]") && parallel)
+            return parallelBreadthLeg(from, target);
+        else if(searchType.equals("Breadth-First Search [Graph Based]") && bitboards)
+            return bitboardBreadthLeg(from, target);
+        else if(searchType.equals("Breadth-First Search [Graph Based]"))
+            return frontierLeg(from, target, true, true);
+        else if(searchType.equals("Depth-First Search [Tree Based]"))
+            return frontierLeg(from, target, false, false);
+        else if(searchType.equals("Depth-First Search [Graph Based]"))
+            return frontierLeg(from, target, false, true);
+        else if(searchType.equals("Hill-Climbing Search"))
+            return climbLeg(from, target, false);
+        else if(searchType.equals("Random Restart Hill-Climbing Search") && threads > 1 && hasObject == 0)
+            return concurrentClimbLeg(from, target);
+        else if(searchType.equals("Random Restart Hill-Climbing Search"))
+            return climbLeg(from, target, hasObject == 0);
+        else if(searchType.equals("Simulated Annealing Search"))
+            return annealLeg(from, target);
+        else if(searchType.equals("Local Beam Search"))
+            return beamLeg(from, target);
+        else if(searchType.equals("Iterative Deepening Search") && bitboards)
+            return bitboardDeepeningLeg(from, target);
+        else if(searchType.equals("Iterative Deepening Search"))
+            return deepeningLeg(from, target);
+        else if(searchType.equals("A* Search") && threads > 1)
+            return hashDistributedLeg(from, target);
+        else if(searchType.equals("A* Search"))
+            return aStarLeg(from, target);
+        else if(searchType.equals("A* Search [Bucket Queue]"))
+            return bucketLeg(from, target);
+        else if(searchType.equals("Jump Point Search") && grid.costs != null)
+            //jumps assume every step costs one
+            return aStarLeg(from, target);
+        else if(searchType.equals("Jump Point Search"))
+            return jumpLeg(from, target);
+        else if(searchType.equals("Bidirectional Search") && (grid.costs != null || !BidirectionalBFS.fits(grid)))
+            //both frontiers count whole steps, and keep them for every block
+            return aStarLeg(from, target);
+        else if(searchType.equals("Bidirectional Search"))
+            return bidirectionalLeg(from, target);
+        else if(searchType.equals("Hierarchical A* Search") && grid.costs != null)
+            //the steps between entrances assume every step costs one
+            return aStarLeg(from, target);
+        else if(searchType.equals("Hierarchical A* Search"))
+            return hierarchicalLeg(from, target);
+        else if(searchType.equals("D* Lite Search"))
+            return dStarLeg(from, target);
+        else if(searchType.equals("Lifelong Planning A* Search"))
+            return lifelongLeg(from, target);
+        else if(searchType.equals("Iterative Deepening A* Search"))
+            return idaStarLeg(from, target);
+        else
+            throw new IllegalArgumentException("Unknown search: " + searchType);
+    }
+
+    /**
+     * Random (blind) search. The robot picks one of four moves at random until it finds
+     * the object and then stumbles back home. Obstacles bounce the robot back.
+     * @return a SearchResult status
+     */
+    int randomSearch() {
+        int previousState = 0;
+        while(true) {
+            int x = pos / width;
+            int y = pos % width;
+            //check the block
+            if(grid.isAgent(x, y))
+                return SearchResult.DIED;
+            else if(grid.isObstacle(x, y)) {
+                //move back from the obstacle
+                if(previousState == 0)
+                    y++;
+                else if(previousState == 1)
+                    y--;
+                else if(previousState == 2)
+                    x++;
+                else
+                    x--;
+                pos = x*width + y;
+            }
+            else if(grid.isGoal(x, y)) {
+                hasObject = 1;
+            }
+            if(totalSteps >= lifetime)
+                return SearchResult.TIMEOUT;
+            if(pos == home && hasObject == 1)
+                return SearchResult.SUCCESS;
+            //0 -> Left, 1 -> Right, 2 -> Up, 3 -> Down
+            int move = rand.nextInt(4);
+            if(move == 0 && y-1 >= 0) {
+                previousState = 0;
+                y--;
+            }
+            else if(move == 1 && y+1 < width) {
+                previousState = 1;
+                y++;
+            }
+            else if(move == 2 && x-1 >= 0) {
+                previousState = 2;
+                x--;
+            }
+            else if(move == 3 && x+1 < length) {
+                previousState = 3;
+                x++;
+            }
+            pos = x*width + y;
+            countSteps(1);
+            mark(pos);
+        }
+    }
+
+    /**
+     * Breadth-First or Depth-First leg. BFS takes blocks from the front of the queue
+     * and adds children to the back, DFS adds children to the front.
+     * Tree based searches do not remember which blocks were already expanded.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @param breadthFirst true for BFS, false for DFS
+     * @param stateChecked true for the graph based version
+     * @return a SearchResult status
+     */
+    int frontierLeg(int from, int target, boolean breadthFirst, boolean stateChecked) {
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        ParentTable parents = new ParentTable(length, width);
+        checked.clear();
+        queue.add(from);
+        while(!queue.isEmpty()) {
+            maxLength(queue.size());
+            int cell = queue.pollFirst();
+            if(stateChecked && checked.contains(cell))
+                continue;
+            int status = moveTo(cell);
+            if(status != RUNNING)
+                return status;
+            if(cell == target) {
+                path = parents.path(from, target);
+                return SearchResult.SUCCESS;
+            }
+            checked.add(cell);
+            int x = cell / width;
+            int y = cell % width;
+            //DOWN, UP, RIGHT, LEFT
+            int[] next = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+            for(int i = 0; i < 8; i += 2) {
+                if(grid.inBounds(next[i], next[i+1]) && !grid.isObstacle(next[i], next[i+1])) {
+                    int child = next[i]*width + next[i+1];
+                    if(stateChecked && checked.contains(child))
+                        continue;
+                    //the block that first found a child leads back to the start
+                    if(child != from && parents.get(child) == ParentTable.NONE)
+                        parents.set(child, cell);
+                    if(breadthFirst)
+                        queue.addLast(child);
+                    else
+                        queue.addFirst(child);
+                }
+            }
+        }
+        return SearchResult.NO_PATH;
+    }
+
+    /**
+     * Hill-Climbing leg. The robot moves to the neighbor with the lowest straight line
+     * distance to the target. If no neighbor is better, the robot is stuck and spends a step.
+     * With random restarts, a stuck robot starts over from a new entry/exit block.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @param restart true to restart from a random entry/exit block when stuck
+     * @return a SearchResult status
+     */
+    int climbLeg(int from, int target, boolean restart) {
+        field = grid.distances(target);
+        ParentTable parents = new ParentTable(length, width);
+        int start = from;
+        int current = from;
+        pos = from;
+        while(true) {
+            int x = current / width;
+            int y = current % width;
+            if(grid.isAgent(x, y))
+                return SearchResult.DIED;
+            if(current == target) {
+                path = parents.path(start, target);
+                return SearchResult.SUCCESS;
+            }
+            if(totalSteps >= lifetime)
+                return SearchResult.TIMEOUT;
+            int next = -1;
+            double nextEval = Double.MAX_VALUE;
+            int[] around = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+            for(int i = 0; i < 8; i += 2) {
+                if(grid.inBounds(around[i], around[i+1]) && !grid.isObstacle(around[i], around[i+1])) {
+                    int cell = around[i]*width + around[i+1];
+                    double eval = evaluation(cell, target);
+                    if(Double.compare(eval, nextEval) < 0) {
+                        next = cell;
+                        nextEval = eval;
+                    }
+                }
+            }
+            countSteps(1);
+            if(next < 0 || Double.compare(nextEval, evaluation(current, target)) >= 0) {
+                //stuck on a plateau or local minimum
+                if(restart) {
+                    numOfBlocks++;
+                    current = startPosition();
+                    parents = new ParentTable(length, width);
+                    start = current;
+                    home = current;
+                    pos = current;
+                    mark(current);
+                }
+            }
+            else {
+                numOfBlocks++;
+                //every move gets closer to the target, so no block is climbed twice
+                parents.set(next, current);
+                current = next;
+                pos = current;
+                mark(current);
+            }
+        }
+    }
+
+    /**
+     * Simulated annealing leg. The robot tries its neighbors in a random order and takes the
+     * first move the cooling schedule accepts, so it always takes a move toward the target if
+     * it tries one, and sometimes a move away. A step where no move is accepted is spent
+     * standing still. The blocks walked are kept as a path, cut back whenever the robot comes
+     * back to a block on it, so the path has no loops and is never longer than the grid.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int annealLeg(int from, int target) {
+        field = grid.distances(target);
+        AnnealingSchedule schedule = new AnnealingSchedule(temperature, cooling, rand.nextLong());
+        //place of each block on the path, stale once the path is cut back past it
+        CostTable place = new CostTable(length, width, -1);
+        int[] trail = new int[16];
+        int n = 0;
+        trail[n++] = from;
+        place.set(from, 0);
+        int current = from;
+        pos = from;
+        while(true) {
+            int x = current / width;
+            int y = current % width;
+            if(grid.isAgent(x, y))
+                return SearchResult.DIED;
+            if(current == target) {
+                path = java.util.Arrays.copyOf(trail, n);
+                return SearchResult.SUCCESS;
+            }
+            if(totalSteps >= lifetime)
+                return SearchResult.TIMEOUT;
+            int[] around = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+            schedule.shuffle(around);
+            double eval = evaluation(current, target);
+            int next = -1;
+            for(int i = 0; i < 8 && next < 0; i += 2) {
+                if(grid.inBounds(around[i], around[i+1]) && !grid.isObstacle(around[i], around[i+1])) {
+                    int cell = around[i]*width + around[i+1];
+                    if(schedule.accept(evaluation(cell, target) - eval))
+                        next = cell;
+                }
+            }
+            countSteps(1);
+            schedule.cool();
+            if(next >= 0) {
+                numOfBlocks++;
+                current = next;
+                pos = current;
+                mark(current);
+                int i = (int)place.get(current);
+                if(i >= 0 && i < n && trail[i] == current) {
+                    n = i + 1;
+                }
+                else {
+                    if(n == trail.length)
+                        trail = java.util.Arrays.copyOf(trail, n*2);
+                    place.set(current, n);
+                    trail[n++] = current;
+                }
+            }
+        }
+    }
+
+    /**
+     * Local beam leg. The beam is moved from the start to the target with the neighbors of
+     * each step scored on the common ForkJoinPool, and the robot then walks the path. Every
+     * block whose neighbors were scored counts as a block used, and every state the beam
+     * held counts toward the most blocks kept.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int beamLeg(int from, int target) {
+        LocalBeam beam = new LocalBeam(grid, beamWidth);
+        path = beam.search(from, target);
+        numOfBlocks += beam.expanded;
+        maxLength(beam.numOfStates);
+        if(path == null)
+            return SearchResult.NO_PATH;
+        return walk(path);
+    }
+
+    /**
+     * Random restart leg on several threads. The climbs from the robot's block and from every
+     * entry/exit block, in a random order, are run as many at a time as there are threads until
+     * one reaches the target. Like after a restart, the robot starts from the block the winning
+     * climb started from, and then walks it. The climbs that got stuck are only searched, not
+     * walked, but their blocks count as blocks used.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int concurrentClimbLeg(int from, int target) {
+        CellSet entries = grid.landmarks().entries;
+        int[] starts = new int[entries.size() + 1];
+        starts[0] = from;
+        for(int i = 0; i < entries.size(); i++)
+            starts[i + 1] = entries.get(i);
+        for(int i = starts.length - 1; i > 1; i--) {
+            int j = 1 + rand.nextInt(i);
+            int swap = starts[i];
+            starts[i] = starts[j];
+            starts[j] = swap;
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        ConcurrentClimb climb = new ConcurrentClimb(grid, pool);
+        try {
+            path = climb.search(starts, target);
+        }
+        finally {
+            pool.shutdown();
+        }
+        numOfBlocks += climb.blocks.get();
+        if(path == null)
+            return SearchResult.NO_PATH;
+        home = path[0];
+        pos = home;
+        mark(home);
+        return walk(path);
+    }
+
+    /**
+     * Iterative Deepening leg. Runs a depth-limited search that only looks at blocks whose
+     * Manhattan distance from the start is under the limit, and raises the limit by one
+     * each time the target was not found.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int deepeningLeg(int from, int target) {
+        int fromX = from / width;
+        int fromY = from % width;
+        ParentTable parents = new ParentTable(length, width);
+        for(int limit = 0; limit <= length + width; limit++) {
+            ArrayDeque<Integer> stack = new ArrayDeque<>();
+            checked.clear();
+            stack.push(from);
+            while(!stack.isEmpty()) {
+                maxLength(stack.size());
+                int cell = stack.pop();
+                if(checked.contains(cell))
+                    continue;
+                checked.add(cell);
+                int status = moveTo(cell);
+                if(status != RUNNING)
+                    return status;
+                if(cell == target) {
+                    path = parents.path(from, target);
+                    return SearchResult.SUCCESS;
+                }
+                int x = cell / width;
+                int y = cell % width;
+                //pushed in reverse so that DOWN is examined first
+                int[] next = new int[]{x, y-1, x, y+1, x-1, y, x+1, y};
+                for(int i = 0; i < 8; i += 2) {
+                    if(grid.inBounds(next[i], next[i+1]) && !grid.isObstacle(next[i], next[i+1])) {
+                        int child = next[i]*width + next[i+1];
+                        int depth = Math.abs(next[i] - fromX) + Math.abs(next[i+1] - fromY);
+                        if(depth <= limit && !checked.contains(child)) {
+                            if(child != from && parents.get(child) == ParentTable.NONE)
+                                parents.set(child, cell);
+                            stack.push(child);
+                        }
+                    }
+                }
+            }
+        }
+        return SearchResult.NO_PATH;
+    }
+
+    /**
+     * Breadth-First leg in bitboard mode. Each level of the search is a bitboard that is
+     * grown from the previous level with BitBoard.expand. Reaching an agent on a level
+     * before the target kills the robot, like dequeuing it would.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int bitboardBreadthLeg(int from, int target) {
+        BitBoard open = BitBoard.open(grid);
+        BitBoard agents = BitBoard.agents(grid);
+        BitBoard visited = new BitBoard(length, width);
+        BitBoard frontier = new BitBoard(length, width);
+        BitBoard next = new BitBoard(length, width);
+        frontier.set(from / width, from % width);
+        visited.set(from / width, from % width);
+        while(!frontier.isEmpty()) {
+            int status = reachLevel(frontier, agents, target);
+            if(status != RUNNING)
+                return status;
+            BitBoard.expand(frontier, open, visited, next);
+            visited.or(next);
+            BitBoard swap = frontier;
+            frontier = next;
+            next = swap;
+        }
+        return SearchResult.NO_PATH;
+    }
+
+    /**
+     * Breadth-First leg in parallel mode. Each level is expanded by a ParallelBFS, and the
+     * robot reaches the blocks of a level the same way as in bitboard mode.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int parallelBreadthLeg(int from, int target) {
+        ParallelBFS bfs = new ParallelBFS(grid);
+        bfs.start(from);
+        do {
+            int status = reachLevel(bfs.frontier, bfs.size, target);
+            if(status != RUNNING)
+                return status;
+        } while(bfs.expand());
+        return SearchResult.NO_PATH;
+    }
+
+    /**
+     * Iterative Deepening leg in bitboard mode. The blocks within the depth limit are a
+     * bitboard of Manhattan distance ranges, and each iteration floods the blocks reachable
+     * from the start within them. The flood of the last iteration is kept and grown, but the
+     * robot still pays one step for every block of every iteration, as IDS does.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int bitboardDeepeningLeg(int from, int target) {
+        int fromX = from / width;
+        int fromY = from % width;
+        BitBoard open = BitBoard.open(grid);
+        BitBoard agents = BitBoard.agents(grid);
+        BitBoard allowed = new BitBoard(length, width);
+        BitBoard reached = new BitBoard(length, width);
+        BitBoard frontier = new BitBoard(length, width);
+        BitBoard next = new BitBoard(length, width);
+        reached.set(fromX, fromY);
+        for(int limit = 0; limit <= length + width; limit++) {
+            //blocks within the depth limit form a diamond around the start
+            allowed.clear();
+            for(int x = Math.max(0, fromX - limit); x <= Math.min(length - 1, fromX + limit); x++) {
+                int reach = limit - Math.abs(x - fromX);
+                allowed.setRange(x, fromY - reach, fromY + reach);
+            }
+            allowed.and(open);
+            //grow last iteration's blocks until nothing new is reachable
+            frontier.copy(reached);
+            while(!frontier.isEmpty()) {
+                BitBoard.expand(frontier, allowed, reached, next);
+                reached.or(next);
+                BitBoard swap = frontier;
+                frontier = next;
+                next = swap;
+            }
+            int status = reachLevel(reached, agents, target);
+            if(status != RUNNING)
+                return status;
+        }
+        return SearchResult.NO_PATH;
+    }
+
+    /**
+     * The robot reaches every block of a bitboard level, paying one step for each.
+     * @param level blocks reached
+     * @param agents agent blocks of the grid
+     * @param target block the leg ends at
+     * @return RUNNING, or a SearchResult status if the level ended the search
+     */
+    int reachLevel(BitBoard level, BitBoard agents, int target) {
+        int count = 0;
+        for(int cell = level.nextSetCell(0); cell >= 0; cell = level.nextSetCell(cell + 1)) {
+            mark(cell);
+            count++;
+        }
+        maxLength(count);
+        numOfBlocks += count;
+        countSteps(count);
+        if(level.get(target / width, target % width)) {
+            pos = target;
+            return SearchResult.SUCCESS;
+        }
+        if(level.intersects(agents))
+            return SearchResult.DIED;
+        if(totalSteps >= lifetime)
+            return SearchResult.TIMEOUT;
+        return RUNNING;
+    }
+
+    /**
+     * The robot reaches every block of a level, paying one step for each.
+     * @param level blocks reached
+     * @param size number of blocks in the level
+     * @param target block the leg ends at
+     * @return RUNNING, or a SearchResult status if the level ended the search
+     */
+    int reachLevel(int[] level, int size, int target) {
+        boolean died = false;
+        boolean found = false;
+        for(int i = 0; i < size; i++) {
+            int cell = level[i];
+            mark(cell);
+            if(cell == target)
+                found = true;
+            else if(grid.isAgent(cell / width, cell % width))
+                died = true;
+        }
+        maxLength(size);
+        numOfBlocks += size;
+        countSteps(size);
+        if(found) {
+            pos = target;
+            return SearchResult.SUCCESS;
+        }
+        if(died)
+            return SearchResult.DIED;
+        if(totalSteps >= lifetime)
+            return SearchResult.TIMEOUT;
+        return RUNNING;
+    }
+
+    /**
+     * A* leg. Always expands the open block with the lowest cost so far plus
+     * distance to the target. Entering a block costs its terrain cost. The open blocks are kept in an IndexedHeap, so finding the
+     * cheapest one and lowering the cost of one already open take O(log n) steps.
+     * Costs, parents and the heap positions are kept in tiles, so only the explored part
+     * of the grid costs memory.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int aStarLeg(int from, int target) {
+        field = grid.distances(target);
+        CostTable gCost = new CostTable(length, width, Double.POSITIVE_INFINITY);
+        ParentTable parents = new ParentTable(length, width);
+        IndexedHeap open = new IndexedHeap(length, width);
+        //the closed blocks
+        checked.clear();
+        gCost.set(from, 0);
+        open.push(from, evaluation(from, target), evaluation(from, target));
+        while(!open.isEmpty()) {
+            maxLength(open.size());
+            int cell = open.poll();
+            checked.add(cell);
+            int status = moveTo(cell);
+            if(status != RUNNING)
+                return status;
+            if(cell == target) {
+                path = parents.path(from, target);
+                return SearchResult.SUCCESS;
+            }
+            int x = cell / width;
+            int y = cell % width;
+            int[] next = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+            for(int i = 0; i < 8; i += 2) {
+                if(grid.inBounds(next[i], next[i+1]) && !grid.isObstacle(next[i], next[i+1])) {
+                    int child = next[i]*width + next[i+1];
+                    double g = gCost.get(cell) + grid.getCost(next[i], next[i+1]);
+                    if(!checked.contains(child) && g < gCost.get(child)) {
+                        gCost.set(child, g);
+                        parents.set(child, cell);
+                        double h = evaluation(child, target);
+                        open.push(child, g + h, h);
+                    }
+                }
+            }
+        }
+        return SearchResult.NO_PATH;
+    }
+
+    /**
+     * A* leg on several threads. The path is planned by a HashDistributedAStar before the
+     * robot moves, with agents as walls, and then the robot walks it.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int hashDistributedLeg(int from, int target) {
+        HashDistributedAStar planner = new HashDistributedAStar(grid, threads);
+        path = planner.search(from, target);
+        numOfBlocks += planner.expanded();
+        maxLength(planner.widest());
+        if(path == null)
+            return SearchResult.NO_PATH;
+        return walk(path);
+    }
+
+    /**
+     * A* leg on a BucketQueue (Dial's algorithm). Costs so far are whole numbers of steps
+     * plus terrain costs, and the heuristic is the exact steps of the distance field or the
+     * Manhattan distance, so every fitness cost is a whole number and has a bucket.
+     * A block that gets a cheaper path is added again, and its older copy skipped.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int bucketLeg(int from, int target) {
+        field = grid.distances(target);
+        CostTable gCost = new CostTable(length, width, Double.POSITIVE_INFINITY);
+        ParentTable parents = new ParentTable(length, width);
+        BucketQueue open = new BucketQueue(grid.maxCost + 1);
+        //the closed blocks
+        checked.clear();
+        gCost.set(from, 0);
+        open.push(from, steps(from, target));
+        while(!open.isEmpty()) {
+            maxLength(open.size());
+            int cell = open.poll();
+            if(checked.contains(cell))
+                continue;
+            checked.add(cell);
+            int status = moveTo(cell);
+            if(status != RUNNING)
+                return status;
+            if(cell == target) {
+                path = parents.path(from, target);
+                return SearchResult.SUCCESS;
+            }
+            int x = cell / width;
+            int y = cell % width;
+            int[] next = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+            for(int i = 0; i < 8; i += 2) {
+                if(grid.inBounds(next[i], next[i+1]) && !grid.isObstacle(next[i], next[i+1])) {
+                    int child = next[i]*width + next[i+1];
+                    int g = (int)gCost.get(cell) + grid.getCost(next[i], next[i+1]);
+                    int h = steps(child, target);
+                    if(h != DistanceField.UNREACHABLE && !checked.contains(child) && g < gCost.get(child)) {
+                        gCost.set(child, g);
+                        parents.set(child, cell);
+                        open.push(child, g + h);
+                    }
+                }
+            }
+        }
+        return SearchResult.NO_PATH;
+    }
+
+    /**
+     * Jump Point Search leg. A* that only expands jump points, jumping straight over
+     * the blocks in between, so the robot walks from jump point to jump point.
+     * Agents are walls to the jumps. Only for grids where every step costs one.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int jumpLeg(int from, int target) {
+        field = grid.distances(target);
+        JumpPoints jumps = new JumpPoints(grid);
+        CostTable gCost = new CostTable(length, width, Double.POSITIVE_INFINITY);
+        ParentTable parents = new ParentTable(length, width);
+        IndexedHeap open = new IndexedHeap(length, width);
+        int[] next = new int[4];
+        //the closed jump points
+        checked.clear();
+        gCost.set(from, 0);
+        open.push(from, steps(from, target), steps(from, target));
+        while(!open.isEmpty()) {
+            maxLength(open.size());
+            int cell = open.poll();
+            checked.add(cell);
+            int status = moveTo(cell);
+            if(status != RUNNING)
+                return status;
+            if(cell == target) {
+                path = jumps.walk(parents.path(from, target));
+                return SearchResult.SUCCESS;
+            }
+            int count = jumps.successors(cell, cell == from ? JumpPoints.NONE : parents.get(cell), target, next);
+            for(int i = 0; i < count; i++) {
+                int child = next[i];
+                double g = gCost.get(cell) + jumps.distance(cell, child);
+                int h = steps(child, target);
+                if(h != DistanceField.UNREACHABLE && !checked.contains(child) && g < gCost.get(child)) {
+                    gCost.set(child, g);
+                    parents.set(child, cell);
+                    open.push(child, g + h, h);
+                }
+            }
+        }
+        return SearchResult.NO_PATH;
+    }
+
+    /**
+     * Bidirectional Search leg. Breadth-First Search runs out from the start and from the
+     * target on two threads until the frontiers meet, and the robot then walks the path
+     * through the meeting block. Every block either frontier labelled counts as a block used.
+     * The way home is the way to the goal walked backwards, so it needs no second search.
+     * Agents are walls to both frontiers. Only for grids where every step costs one.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int bidirectionalLeg(int from, int target) {
+        if(path != null && path[0] == target && path[path.length - 1] == from) {
+            path = reversed(path);
+        }
+        else {
+            BidirectionalBFS search = new BidirectionalBFS(grid);
+            path = search.search(from, target);
+            numOfBlocks += search.expanded();
+            maxLength(search.widest());
+            if(path == null)
+                return SearchResult.NO_PATH;
+        }
+        return walk(path);
+    }
+
+    /**
+     * Hierarchical A* leg. A* runs over the entrances between the 64x64 clusters of the grid,
+     * and the robot walks the path once it is filled in inside each cluster. Every entrance
+     * expanded counts as a block used. The clusters are kept by the grid, so the way home and
+     * later searches reuse the ones already worked out.
+     * Agents are walls to the search. Only for grids where every step costs one.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int hierarchicalLeg(int from, int target) {
+        ClusterGraph.Route route = grid.clusters().path(from, target);
+        path = route.path;
+        numOfBlocks += route.expanded;
+        maxLength(route.widest);
+        if(path == null)
+            return SearchResult.NO_PATH;
+        return walk(path);
+    }
+
+    /**
+     * D* Lite leg. The robot plans backwards from the target and steps along the plan one
+     * block at a time. Before every step the plan is repaired for the obstacles and agents
+     * that changed since the last one, so a grid that changes while the robot walks does
+     * not start the search over. Every block the plan expands counts as a block used.
+     * Agents are walls to the plan.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int dStarLeg(int from, int target) {
+        DStarLite plan = new DStarLite(grid, from, target);
+        int[] walked = new int[16];
+        int n = 0;
+        walked[n++] = from;
+        pos = from;
+        int status = SearchResult.SUCCESS;
+        while(pos != target) {
+            plan.update();
+            if(!plan.plan()) {
+                status = SearchResult.NO_PATH;
+                break;
+            }
+            pos = plan.next();
+            plan.moveTo(pos);
+            countSteps(1);
+            mark(pos);
+            if(n == walked.length)
+                walked = java.util.Arrays.copyOf(walked, n*2);
+            walked[n++] = pos;
+            if(grid.isAgent(pos / width, pos % width)) {
+                status = SearchResult.DIED;
+                break;
+            }
+            if(totalSteps >= lifetime) {
+                status = SearchResult.TIMEOUT;
+                break;
+            }
+        }
+        numOfBlocks += plan.expanded;
+        maxLength(plan.widest);
+        if(status == SearchResult.SUCCESS)
+            path = java.util.Arrays.copyOf(walked, n);
+        return status;
+    }
+
+    /**
+     * Lifelong Planning A* leg. The grid keeps a planner for the two blocks, so a search
+     * asked again after a few blocks were edited only repairs what the edits changed, and
+     * the robot walks the path once it is known. Every block the planner expanded for this
+     * leg counts as a block used. Agents are walls to the planner.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int lifelongLeg(int from, int target) {
+        LPAStar planner = grid.planner(from, target);
+        //engines on other threads share the planner
+        synchronized(planner) {
+            int before = planner.expanded;
+            path = planner.path();
+            numOfBlocks += planner.expanded - before;
+            maxLength(planner.widest);
+        }
+        if(path == null)
+            return SearchResult.NO_PATH;
+        return walk(path);
+    }
+
+    /**
+     * Iterative Deepening A* leg. The robot walks to each block the depth-first passes examine,
+     * and the longest path followed is the most blocks held at once. Nothing is kept for the
+     * blocks off that path, so the leg fits in little memory on the largest grids.
+     * @param from block the leg starts at
+     * @param target block the leg ends at
+     * @return a SearchResult status
+     */
+    int idaStarLeg(int from, int target) {
+        IDAStar search = new IDAStar(grid, from, target);
+        while(true) {
+            int cell = search.next();
+            maxLength(search.deepest);
+            if(cell == IDAStar.NONE)
+                return SearchResult.NO_PATH;
+            int status = moveTo(cell);
+            if(status != RUNNING)
+                return status;
+            if(cell == target) {
+                path = search.path();
+                return SearchResult.SUCCESS;
+            }
+        }
+    }
+
+    /**
+     * Returns a path backwards.
+     * @param path blocks of a path
+     * @return the same blocks from the last to the first
+     */
+    static int[] reversed(int[] path) {
+        int[] back = new int[path.length];
+        for(int i = 0; i < path.length; i++)
+            back[i] = path[path.length - 1 - i];
+        return back;
+    }
+
+    /**
+     * Cuts the detours out of a path. From each block the path goes on from the latest
+     * block that is next to it, so the loops a depth-first or hill climbing search made
+     * are skipped.
+     * @param path blocks of a path, each next to the one before it
+     * @return a path with the same ends that is no longer
+     */
+    int[] shortcut(int[] path) {
+        //latest place on the path of each block
+        CostTable place = new CostTable(length, width, -1);
+        for(int i = 0; i < path.length; i++)
+            place.set(path[i], i);
+        int[] cut = new int[path.length];
+        int n = 0;
+        int i = 0;
+        while(true) {
+            //a block the path comes back to is left from its last visit
+            i = (int)place.get(path[i]);
+            cut[n++] = path[i];
+            if(i == path.length - 1)
+                break;
+            int x = path[i] / width;
+            int y = path[i] % width;
+            int furthest = i + 1;
+            int[] next = new int[]{x+1, y, x-1, y, x, y+1, x, y-1};
+            for(int j = 0; j < 8; j += 2) {
+                if(grid.inBounds(next[j], next[j+1]))
+                    furthest = Math.max(furthest, (int)place.get(next[j]*width + next[j+1]));
+            }
+            i = furthest;
+        }
+        return java.util.Arrays.copyOf(cut, n);
+    }
+
+    /**
+     * Walks the robot along a path one step at a time.
+     * @param path blocks of the path, starting where the robot stands
+     * @return SUCCESS once the end of the path is reached, or the status that ended the walk
+     */
+    int walk(int[] path) {
+        for(int i = 1; i < path.length; i++) {
+            countSteps(1);
+            pos = path[i];
+            mark(pos);
+            if(grid.isAgent(pos / width, pos % width))
+                return SearchResult.DIED;
+            if(totalSteps >= lifetime)
+                return SearchResult.TIMEOUT;
+        }
+        return SearchResult.SUCCESS;
+    }
+
+    /**
+     * Whole number of steps from a block to the target, the heuristic of the bucket queue A*.
+     * @param cell block to evaluate
+     * @param target block to measure the distance to
+     * @return the exact steps when the leg has a distance field, the Manhattan distance otherwise
+     */
+    int steps(int cell, int target) {
+        if(field != null && field.target == target)
+            return field.get(cell);
+        return Math.abs(cell / width - target / width) + Math.abs(cell % width - target % width);
+    }
+
+    /**
+     * Distance from a block to the target, the heuristic used by the hill climbing and
+     * A* searches. It is the exact number of steps when the leg has a distance field,
+     * and the straight line distance otherwise.
+     * @param cell block to evaluate
+     * @param target block to measure the distance to
+     * @return the distance to the target
+     */
+    double evaluation(int cell, int target) {
+        if(field != null && field.target == target)
+            return field.cost(cell);
+        int x = Math.abs(cell / width - target / width);
+        int y = Math.abs(cell % width - target % width);
+        return Math.sqrt((x*x)+(y*y));
+    }
+
+    /**
+     * Walks the robot to a block, counting the Manhattan distance as steps.
+     * @param cell block to walk to
+     * @return RUNNING, or a SearchResult status if the walk ended the search
+     */
+    int moveTo(int cell) {
+        int xMove = Math.abs(pos / width - cell / width);
+        int yMove = Math.abs(pos % width - cell % width);
+        countSteps(xMove + yMove);
+        numOfBlocks++;
+        pos = cell;
+        mark(cell);
+        if(grid.isAgent(cell / width, cell % width))
+            return SearchResult.DIED;
+        if(totalSteps >= lifetime)
+            return SearchResult.TIMEOUT;
+        return RUNNING;
+    }
+
+    /**
+     * Adds steps to the performance measure.
+     * @param steps number of steps taken
+     */
+    void countSteps(int steps) {
+        if(hasObject == 1)
+            stepsHome += steps;
+        else
+            stepsToObject += steps;
+        totalSteps += steps;
+    }
+
+    /**
+     * Marks a block as traversed before or after the object was picked up.
+     * @param cell block the robot is on
+     */
+    void mark(int cell) {
+        int x = cell / width;
+        int y = cell % width;
+        int flags = marks.flags(x, y);
+        if(flags == 0 && !grid.isObstacle(x, y) && !grid.isAgent(x, y))
+            touched++;
+        if(hasObject == 1)
+            marks.setFlags(x, y, flags | Grid.HOME_TRAVERSED_BIT);
+        else
+            marks.setFlags(x, y, flags | Grid.TRAVERSED_BIT);
+    }
+
+    /**
+     * Sets the new maximum amount of blocks in queue during search.
+     * @param size current size of the queue
+     */
+    void maxLength(int size) {
+        if(maxBlocks <= size)
+            maxBlocks = size;
+    }
+
+    /**
+     * Picks a random free block on the boundary of the grid, like Agent.startPosition.
+     * @return the entry/exit block, or -1 if the boundary has no free block
+     */
+    int startPosition() {
+        CellSet entries = grid.landmarks().entries;
+        if(entries.isEmpty())
+            return -1;
+        return entries.get(rand.nextInt(entries.size()));
+    }
+
+    /**
+     * Builds the performance measure for the search.
+     * @param searchType the search that ran
+     * @param status how the search ended
+     * @return the result of the search
+     */
+    SearchResult result(Object searchType, int status) {
+        SearchResult result = new SearchResult();
+        result.searchType = String.valueOf(searchType);
+        result.status = status;
+        result.lifetime = lifetime;
+        result.stepsToObject = stepsToObject;
+        result.stepsHome = stepsHome;
+        result.totalSteps = totalSteps;
+        result.numOfBlocks = numOfBlocks;
+        result.maxBlocks = maxBlocks;
+        //if it touched an agent, that is included in the total numbers of squares traversed
+        int blocks = touched;
+        if(status == SearchResult.DIED)
+            blocks++;
+        result.blocksTraversedPercent = ((double)blocks/((double)length*width))*100;
+        return result;
+    }
+
+    /**
+     * Runs searches on a saved grid file without the simulator.
+     * Usage: java SearchEngine [-bitboard] [-reuse] [-parallel] [-threads=N] [-cooling=T,R] [-beam=K] gridFile [searchType]
+     * @param args the grid file and optionally the search to run, all searches run otherwise
+     * @throws IOException if the grid file can not be read
+     */
+    public static void main(String[] args) throws IOException {
+        boolean bitboards = false;
+        boolean reuse = false;
+        boolean parallel = false;
+        int threads = 1;
+        double temperature = AnnealingSchedule.START_TEMPERATURE;
+        double cooling = AnnealingSchedule.COOLING_RATE;
+        int beamWidth = LocalBeam.BEAM_WIDTH;
+        ArrayList<String> files = new ArrayList<>();
+        for(String arg: args) {
+            if(arg.equals("-bitboard"))
+                bitboards = true;
+            else if(arg.equals("-reuse"))
+                reuse = true;
+            else if(arg.equals("-parallel"))
+                parallel = true;
+            else if(arg.startsWith("-threads="))
+                threads = Integer.parseInt(arg.substring("-threads=".length()));
+            else if(arg.startsWith("-beam="))
+                beamWidth = Integer.parseInt(arg.substring("-beam=".length()));
+            else if(arg.startsWith("-cooling=")) {
+                String[] schedule = arg.substring("-cooling=".length()).split(",");
+                temperature = Double.parseDouble(schedule[0]);
+                cooling = Double.parseDouble(schedule[1]);
+            }
+            else
+                files.add(arg);
+        }
+        if(files.size() < 1) {
+            System.err.println("Usage: java SearchEngine [-bitboard] [-reuse] [-parallel] [-threads=N] [-cooling=T,R] [-beam=K] gridFile [searchType]");
+            return;
+        }
+        Grid grid = Grid.load(new File(files.get(0)));
+        String[] searches = SEARCH_TYPES;
+        if(files.size() > 1)
+            searches = new String[]{files.get(1)};
+        for(String searchType: searches) {
+            SearchEngine engine = new SearchEngine(grid);
+            engine.setBitboardMode(bitboards);
+            engine.setPathReuseMode(reuse);
+            engine.setParallelMode(parallel);
+            engine.setThreads(threads);
+            engine.setCoolingSchedule(temperature, cooling);
+            engine.setBeamWidth(beamWidth);
+            SearchResult result = engine.search(searchType);
+            System.out.println(result.report() + "\n");
+        }
+    }
+}
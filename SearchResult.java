@@ -0,0 +1,59 @@
+/**
+ * The outcome of a headless search. It carries the same performance measure
+ * the simulator shows in its pop-up once a search is over.
+ * @author Andrew C. Haynes
+ */
+public class SearchResult {
+
+    //Robot retrieved object and went back home
+    public static final int SUCCESS = 0;
+    //Robot stepped onto an agent
+    public static final int DIED = 1;
+    //Robot ran out of lifetime steps
+    public static final int TIMEOUT = 2;
+    //Robot ran out of blocks to search
+    public static final int NO_PATH = 3;
+
+    public String searchType;
+    public int status;
+    //Performance Measure parameters
+    public int lifetime;
+    public int stepsToObject;
+    public int stepsHome;
+    public int totalSteps;
+    public int numOfBlocks;
+    public int maxBlocks;
+    public double blocksTraversedPercent;
+
+    /**
+     * Determines if the robot retrieved the object and went back home.
+     * @return true if the search was a success
+     */
+    public boolean isSuccess() {
+        return status == SUCCESS;
+    }
+
+    /**
+     * Reports the results the same way the simulator pop-ups do.
+     * @return a string that reports the performance of the robot
+     */
+    public String report() {
+        String outcome;
+        if(status == SUCCESS)
+            outcome = "ROBOT retrieved object and went back home.";
+        else if(status == DIED)
+            outcome = "ROBOT died.";
+        else if(status == TIMEOUT)
+            outcome = "ROBOT took too long to find goal object and return home.";
+        else
+            outcome = "ROBOT is unable to find a path to the goal object or home.";
+        return outcome + "\n\n" + searchType + " Results:"
+                + "\nAllowed Lifetime Steps: " + lifetime
+                + "\nSteps Taken Before Object Retrieved: " + stepsToObject
+                + "\nSteps Taken with Object: " + stepsHome
+                + "\nSteps Total: " + totalSteps
+                + "\n% of Blocks Traversed: " + blocksTraversedPercent + "%"
+                + "\nNumber of Blocks Used: " + numOfBlocks
+                + "\nMax Number of Blocks during Runtime: " + maxBlocks;
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * The state one search run changes while it searches: where the robot is, and the
+ * path costs, depths and state checks of the blocks. Keeping it here instead of on the
+ * Blocks and the Agent leaves the grid read only during a search, so several searches
+ * can share one grid at the same time. Each array is only created once the search uses it.
+ *
+ * The g costs and state checks are stamped with a generation. Clearing them starts a new
+ * generation instead of sweeping the grid, and a block stamped with an old generation
+ * reads as cleared.
+ * @author Andrew C. Haynes
+ */
+public class SearchState {
+
+    Grid grid;
+    int length;
+    int width;
+    //current X and Y positions
+    public int posX;
+    public int posY;
+    //this is only for moving back from an obstacle
+    public int previousState;
+    //Path cost for heuristic functions
+    double[] pathCost;
+    //Path cost for path so far, and the generation each one was set in
+    double[] gCost;
+    int[] gCostStamp;
+    int gCostGeneration = 1;
+    //used for graph-based search, the generation each block was checked in
+    int[] stateChecked;
+    int stateCheckedGeneration = 1;
+    //the depth of each block in the grid, set one at a time or measured from a block
+    int[] depth;
+    int depthFromX = -1;
+    int depthFromY = -1;
+
+    /**
+     * Creates the state for a search that starts at the given block.
+     * @param grid the grid being searched
+     * @param startX row the robot starts at
+     * @param startY column the robot starts at
+     */
+    public SearchState(Grid grid, int startX, int startY) {
+        this.grid = grid;
+        length = grid.length;
+        width = grid.width;
+        posX = startX;
+        posY = startY;
+        previousState = 0;
+    }
+
+    /**
+     * Returns the heuristic path cost of a block. Obstacles cost infinity
+     * until a heuristic function says otherwise.
+     * @param block the block
+     * @return the path cost
+     */
+    public double getPathCost(Block block) {
+        if(pathCost == null)
+            return grid.isObstacle(block.xPos, block.yPos) ? Double.POSITIVE_INFINITY : 0.0;
+        return pathCost[block.xPos*width + block.yPos];
+    }
+
+    public void setPathCost(Block block, double cost) {
+        if(pathCost == null) {
+            pathCost = new double[length*width];
+            for(int i = 0; i < length; i++) {
+                for(int j = 0; j < width; j++) {
+                    if(grid.isObstacle(i, j))
+                        pathCost[i*width + j] = Double.POSITIVE_INFINITY;
+                }
+            }
+        }
+        pathCost[block.xPos*width + block.yPos] = cost;
+    }
+
+    /**
+     * Returns the cost of the path so far to a block.
+     * @param block the block
+     * @return the path cost so far
+     */
+    public double getGCost(Block block) {
+        int i = block.xPos*width + block.yPos;
+        if(gCost == null || gCostStamp[i] != gCostGeneration)
+            return 0.0;
+        return gCost[i];
+    }
+
+    public void setGCost(Block block, double cost) {
+        if(gCost == null) {
+            gCost = new double[length*width];
+            gCostStamp = new int[length*width];
+        }
+        int i = block.xPos*width + block.yPos;
+        gCost[i] = cost;
+        gCostStamp[i] = gCostGeneration;
+    }
+
+    /**
+     * Determines if a block has been given a path cost so far since the costs were cleared.
+     * @param block the block
+     * @return true if the block has a path cost so far
+     */
+    public boolean hasGCost(Block block) {
+        return gCost != null && gCostStamp[block.xPos*width + block.yPos] == gCostGeneration;
+    }
+
+    /**
+     * Clears the path cost so far of every block by starting a new generation.
+     */
+    public void clearGCost() {
+        gCostGeneration++;
+        if(gCostGeneration == 0) {
+            //the generations wrapped around, so old stamps could match again
+            if(gCostStamp != null)
+                java.util.Arrays.fill(gCostStamp, 0);
+            gCostGeneration = 1;
+        }
+    }
+
+    /**
+     * Returns if the block has been checked by a graph based search.
+     * @param block the block
+     * @return 0 if it is not checked, 1 if it is
+     */
+    public int getStateChecked(Block block) {
+        if(stateChecked == null)
+            return 0;
+        return stateChecked[block.xPos*width + block.yPos] == stateCheckedGeneration ? 1 : 0;
+    }
+
+    public void setStateChecked(Block block, int checked) {
+        if(stateChecked == null)
+            stateChecked = new int[length*width];
+        stateChecked[block.xPos*width + block.yPos] = checked == 1 ? stateCheckedGeneration : 0;
+    }
+
+    /**
+     * Clears the state check of every block by starting a new generation.
+     */
+    public void clearStateChecked() {
+        stateCheckedGeneration++;
+        if(stateCheckedGeneration == 0) {
+            //the generations wrapped around, so old stamps could match again
+            if(stateChecked != null)
+                java.util.Arrays.fill(stateChecked, 0);
+            stateCheckedGeneration = 1;
+        }
+    }
+
+    /**
+     * Returns the depth of a block in the search tree.
+     * @param block the block
+     * @return the depth, -1 if it was never set
+     */
+    public int getDepth(Block block) {
+        if(depth != null) {
+            int d = depth[block.xPos*width + block.yPos];
+            if(d >= 0)
+                return d;
+        }
+        if(depthFromX < 0)
+            return -1;
+        return Math.abs(depthFromX - block.xPos) + Math.abs(depthFromY - block.yPos);
+    }
+
+    public void setDepth(Block block, int d) {
+        if(depth == null) {
+            depth = new int[length*width];
+            java.util.Arrays.fill(depth, -1);
+        }
+        depth[block.xPos*width + block.yPos] = d;
+    }
+
+    /**
+     * Makes the depth of every block its Manhattan distance from a block, the depth it
+     * has in a grid without obstacles. Depths set one at a time are kept.
+     * @param from the block the depths are measured from
+     */
+    public void setDepthFrom(Block from) {
+        depthFromX = from.xPos;
+        depthFromY = from.yPos;
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * The Simulated Annealing Search moves like the Hill Climbing Search, on the same path costs
+ * to the goal and then to the Entry/Exit point, but tries the neighbors in a random order and
+ * sometimes takes a move that leads away. Moves away are taken less often the cooler the
+ * schedule gets, so the robot wanders out of a local minimum or across a plateau instead of
+ * standing still on it until its lifetime runs out.
+ * (Note: The robot can still run out of steps if the way out is long.)
+ * @author Andrew C. Haynes
+ */
+public class SimulatedAnnealingSearch extends AnimatedSearch {
+
+    /**
+     * Initiates the Agent to this search algorithm.
+     * @param agent The Agent that calls this search algorithm.
+     */
+    public SimulatedAnnealingSearch(Agent agent) {
+        super(agent, "Simulated Annealing Search");
+    }
+
+    /**
+     * Anneals to the goal block and then back to the Entry/Exit block.
+     */
+    public void annealing() {
+        this.start();
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * A grid stored in 64x64 tiles for very large maps. Every tile starts out as the
+ * same shared, all-free tile, and gets a tile of its own the first time one of its
+ * blocks is changed. A grid that is mostly free then only costs memory for the tiles
+ * that hold obstacles, agents, the goal, home or traversed blocks.
+ * @author Andrew C. Haynes
+ */
+public class TiledGrid extends Grid {
+
+    static final int TILE_BITS = 6;
+    static final int TILE_SIZE = 1 << TILE_BITS;
+    static final int TILE_MASK = TILE_SIZE - 1;
+    //Shared by every tile that is all free, it is never written to
+    static final byte[] FREE_TILE = new byte[TILE_SIZE*TILE_SIZE];
+
+    //number of tiles along the length and width of the grid
+    int tilesDown;
+    int tilesAcross;
+    byte[][] tiles;
+
+    /**
+     * Creates a tiled grid where every block is free.
+     * @param len length of the grid
+     * @param wid width of the grid
+     * @throws IllegalArgumentException if the grid has more than MAX_BLOCKS blocks
+     */
+    public TiledGrid(int len, int wid) {
+        super(len, wid, null);
+        tilesDown = (len + TILE_MASK) >>> TILE_BITS;
+        tilesAcross = (wid + TILE_MASK) >>> TILE_BITS;
+        tiles = new byte[tilesDown*tilesAcross][];
+        java.util.Arrays.fill(tiles, FREE_TILE);
+        blank = true;
+    }
+
+    int flags(int x, int y) {
+        byte[] tile = tiles[(x >>> TILE_BITS)*tilesAcross + (y >>> TILE_BITS)];
+        return tile[((x & TILE_MASK) << TILE_BITS) | (y & TILE_MASK)];
+    }
+
+    void setFlags(int x, int y, int flags) {
+        int t = (x >>> TILE_BITS)*tilesAcross + (y >>> TILE_BITS);
+        byte[] tile = tiles[t];
+        if(tile == FREE_TILE) {
+            if(flags == 0)
+                return;
+            tile = new byte[TILE_SIZE*TILE_SIZE];
+            tiles[t] = tile;
+        }
+        tile[((x & TILE_MASK) << TILE_BITS) | (y & TILE_MASK)] = (byte)flags;
+    }
+
+    /**
+     * Only the tiles of their own can hold anything but free blocks,
+     * so only they are searched for obstacles. Other codes come from the landmarks.
+     * @param code a cell code
+     * @return the block as x*width + y, or -1 if no block has the code
+     */
+    public int find(int code) {
+        if(code != OBSTACLE)
+            return super.find(code);
+        for(int i = 0; i < tilesDown; i++) {
+            for(int j = 0; j < tilesAcross; j++) {
+                if(tiles[i*tilesAcross + j] == FREE_TILE)
+                    continue;
+                for(int x = i << TILE_BITS; x < Math.min(length, (i+1) << TILE_BITS); x++) {
+                    for(int y = j << TILE_BITS; y < Math.min(width, (j+1) << TILE_BITS); y++) {
+                        if(getCell(x, y) == code)
+                            return x*width + y;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the tiles that have been given storage of their own.
+     * @return number of tiles that are not the shared free tile
+     */
+    public int tilesInUse() {
+        int count = 0;
+        for(byte[] tile: tiles) {
+            if(tile != FREE_TILE)
+                count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * The set of blocks a search has checked, cleared in constant time. Each block keeps
+ * the generation it was last checked in, and clearing the set only starts a new
+ * generation, so a block counts as unchecked once its generation is an old one.
+ * Generations are stored in 64x64 tiles that are only allocated once a block in them
+ * is checked, like the costs in a CostTable.
+ * @author Andrew C. Haynes
+ */
+public class VisitedSet {
+
+    int width;
+    int tilesAcross;
+    int[][] tiles;
+    //the current generation, blocks stamped with any other one are unchecked
+    int generation;
+
+    /**
+     * Creates an empty set for a grid.
+     * @param len length of the grid
+     * @param wid width of the grid
+     */
+    public VisitedSet(int len, int wid) {
+        width = wid;
+        tilesAcross = (wid + TiledGrid.TILE_MASK) >>> TiledGrid.TILE_BITS;
+        int tilesDown = (len + TiledGrid.TILE_MASK) >>> TiledGrid.TILE_BITS;
+        tiles = new int[tilesDown*tilesAcross][];
+        generation = 1;
+    }
+
+    /**
+     * Makes room for more rows of blocks, keeping the blocks already in the set.
+     * @param len new length of the grid, at least the old one
+     */
+    public void grow(int len) {
+        int tilesDown = (len + TiledGrid.TILE_MASK) >>> TiledGrid.TILE_BITS;
+        if(tilesDown*tilesAcross > tiles.length)
+            tiles = java.util.Arrays.copyOf(tiles, tilesDown*tilesAcross);
+    }
+
+    /**
+     * Determines if a block has been checked since the set was last cleared.
+     * @param cell block as x*width + y
+     * @return true if the block is in the set
+     */
+    public boolean contains(int cell) {
+        int x = cell / width;
+        int y = cell % width;
+        int[] tile = tiles[(x >>> TiledGrid.TILE_BITS)*tilesAcross + (y >>> TiledGrid.TILE_BITS)];
+        return tile != null && tile[((x & TiledGrid.TILE_MASK) << TiledGrid.TILE_BITS) | (y & TiledGrid.TILE_MASK)] == generation;
+    }
+
+    /**
+     * Adds a block to the set.
+     * @param cell block as x*width + y
+     */
+    public void add(int cell) {
+        int x = cell / width;
+        int y = cell % width;
+        int t = (x >>> TiledGrid.TILE_BITS)*tilesAcross + (y >>> TiledGrid.TILE_BITS);
+        int[] tile = tiles[t];
+        if(tile == null) {
+            tile = new int[TiledGrid.TILE_SIZE*TiledGrid.TILE_SIZE];
+            tiles[t] = tile;
+        }
+        tile[((x & TiledGrid.TILE_MASK) << TiledGrid.TILE_BITS) | (y & TiledGrid.TILE_MASK)] = generation;
+    }
+
+    /**
+     * Takes a block out of the set.
+     * @param cell block as x*width + y
+     */
+    public void remove(int cell) {
+        int x = cell / width;
+        int y = cell % width;
+        int[] tile = tiles[(x >>> TiledGrid.TILE_BITS)*tilesAcross + (y >>> TiledGrid.TILE_BITS)];
+        if(tile != null)
+            tile[((x & TiledGrid.TILE_MASK) << TiledGrid.TILE_BITS) | (y & TiledGrid.TILE_MASK)] = 0;
+    }
+
+    /**
+     * Removes every block from the set by starting a new generation. Only when the
+     * generations run out are the tiles actually wiped.
+     */
+    public void clear() {
+        generation++;
+        if(generation == 0) {
+            for(int[] tile: tiles) {
+                if(tile != null)
+                    java.util.Arrays.fill(tile, 0);
+            }
+            generation = 1;
+        }
+    }
+}